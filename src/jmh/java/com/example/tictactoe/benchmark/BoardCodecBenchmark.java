@@ -0,0 +1,78 @@
+package com.example.tictactoe.benchmark;
+
+import com.example.tictactoe.converter.BoardCodec;
+import com.example.tictactoe.converter.BoardConverter;
+import com.example.tictactoe.enumeration.GameVariant;
+import com.example.tictactoe.model.BitBoard;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round-trips of the board column through {@link BoardConverter}, compared with the legacy JSON format.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardCodecBenchmark {
+    private static final int BOARD_SIZE = GameVariant.GOMOKU.getSize();
+
+    @Param({"0", "60", "360"})
+    public int stones;
+
+    private final BoardConverter converter = new BoardConverter();
+    private BitBoard board;
+    private BitBoard packedBoard;
+    private byte[] encoded;
+    private String column;
+    private String legacyColumn;
+
+    @Setup
+    public void setUp() throws Exception {
+        board = new BitBoard(BOARD_SIZE);
+        Random random = new Random(42);
+        while (board.getStoneCount() < stones) {
+            board.place(random.nextInt(BOARD_SIZE * BOARD_SIZE), board.getStoneCount() % 2 == 0 ? BitBoard.X : BitBoard.O);
+        }
+        packedBoard = board.copy();
+        packedBoard.forgetHistory();
+        encoded = BoardCodec.encode(board);
+        column = converter.convertToDatabaseColumn(board);
+        legacyColumn = new ObjectMapper().writeValueAsString(board.toArray());
+    }
+
+    @Benchmark
+    public byte[] encodeMoves() {
+        return BoardCodec.encode(board);
+    }
+
+    @Benchmark
+    public byte[] encodePacked() {
+        return BoardCodec.encode(packedBoard);
+    }
+
+    @Benchmark
+    public BitBoard decodeMoves() {
+        return BoardCodec.decode(encoded);
+    }
+
+    @Benchmark
+    public BitBoard converterRoundTrip() {
+        return converter.convertToEntityAttribute(converter.convertToDatabaseColumn(board));
+    }
+
+    @Benchmark
+    public BitBoard readColumn() {
+        return converter.convertToEntityAttribute(column);
+    }
+
+    @Benchmark
+    public BitBoard readLegacyJsonColumn() {
+        return converter.convertToEntityAttribute(legacyColumn);
+    }
+}
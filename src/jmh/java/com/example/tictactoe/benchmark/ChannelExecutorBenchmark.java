@@ -0,0 +1,62 @@
+package com.example.tictactoe.benchmark;
+
+import com.example.tictactoe.config.ChannelExecutors;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Handles a burst of STOMP-like messages that each block for a while, as a database call would,
+ * on the default platform-thread channel pool and on the virtual-thread executor.
+ * <p>
+ * The virtual executor needs Java 21, so only the platform pool runs by default. On Java 21, compare both with
+ * {@code -Djmh.args="ChannelExecutor -p executor=platform,virtual"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChannelExecutorBenchmark {
+    @Param({"platform"})
+    public String executor;
+
+    @Param({"0", "1000"})
+    public long blockMicros;
+
+    @Param({"1000"})
+    public int messages;
+
+    private ThreadPoolTaskExecutor taskExecutor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        taskExecutor = "virtual".equals(executor)
+                ? ChannelExecutors.virtual("bench-virtual-", 10_000)
+                : ChannelExecutors.platform("bench-platform-", 0, Integer.MAX_VALUE);
+        taskExecutor.initialize();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        taskExecutor.shutdown();
+    }
+
+    @Benchmark
+    public void handleBurst() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(messages);
+        for (int i = 0; i < messages; i++) {
+            taskExecutor.execute(() -> {
+                if (blockMicros > 0) {
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(blockMicros));
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+    }
+}
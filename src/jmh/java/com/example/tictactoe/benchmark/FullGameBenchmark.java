@@ -0,0 +1,50 @@
+package com.example.tictactoe.benchmark;
+
+import com.example.tictactoe.enumeration.GameVariant;
+import com.example.tictactoe.model.TicTacToe;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays a fixed random game on a fresh board until it ends, the whole life of a game in the engine.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FullGameBenchmark {
+    private static final int BOARD_SIZE = GameVariant.GOMOKU.getSize();
+
+    private int[] cells;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        cells = new int[BOARD_SIZE * BOARD_SIZE];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = i;
+        }
+        for (int i = cells.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int cell = cells[i];
+            cells[i] = cells[j];
+            cells[j] = cell;
+        }
+    }
+
+    @Benchmark
+    public String playGame() {
+        TicTacToe game = new TicTacToe("alice", "bob");
+        for (int cell : cells) {
+            game.makeMove(game.getTurn(), cell);
+            if (game.isGameOver()) {
+                break;
+            }
+        }
+        return game.getWinner();
+    }
+}
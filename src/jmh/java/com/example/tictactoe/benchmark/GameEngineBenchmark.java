@@ -0,0 +1,58 @@
+package com.example.tictactoe.benchmark;
+
+import com.example.tictactoe.enumeration.GameVariant;
+import com.example.tictactoe.model.BitBoard;
+import com.example.tictactoe.model.TicTacToe;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link TicTacToe#makeMove(String, int)}, including the win check, on boards from empty to nearly full.
+ * The board is filled with a pattern that never contains five in a row, so the move never ends the game early.
+ * Each invocation takes the move back again, which costs a few bit operations, so the board needs no per-invocation
+ * setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameEngineBenchmark {
+    private static final int BOARD_SIZE = GameVariant.GOMOKU.getSize();
+
+    @Param({"0", "50", "95"})
+    public int fillPercent;
+
+    private TicTacToe game;
+    private int move;
+    private String mover;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        game = new TicTacToe("alice", "bob");
+        BitBoard board = new BitBoard(BOARD_SIZE);
+        int stones = BOARD_SIZE * BOARD_SIZE * fillPercent / 100;
+        for (int cell = 0; cell < stones; cell++) {
+            board.place(cell, patternMark(cell));
+        }
+        game.setBoard(board);
+        move = stones;
+        mover = patternMark(move) == BitBoard.X ? "alice" : "bob";
+    }
+
+    @Benchmark
+    public String makeMove() {
+        game.makeMove(mover, move);
+        String winner = game.getWinner();
+        game.getBoard().undoLastMove();
+        return winner;
+    }
+
+    private static char patternMark(int cell) {
+        int row = cell / BOARD_SIZE;
+        int col = cell % BOARD_SIZE;
+        return (col / 2 + row) % 2 == 0 ? BitBoard.X : BitBoard.O;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.tictactoe.benchmark;
+
+import com.example.tictactoe.manager.TicTacToeManager;
+import com.example.tictactoe.model.TicTacToe;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matchmaking and player lookup in {@link TicTacToeManager} with many active games.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ManagerBenchmark {
+    @Param({"10000", "100000"})
+    public int games;
+
+    private TicTacToeManager manager;
+    private String[] players;
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        int next;
+        long newcomers;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        manager = new TicTacToeManager();
+        players = new String[games * 2];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = "player-" + i;
+            manager.joinGame(players[i]);
+        }
+    }
+
+    @Benchmark
+    public TicTacToe getGameByPlayer(ThreadState state) {
+        state.next = (state.next + 1) % players.length;
+        return manager.getGameByPlayer(players[state.next]);
+    }
+
+    /**
+     * A new player opens a game and leaves it again, so the number of games stays the same.
+     */
+    @Benchmark
+    @Threads(4)
+    public TicTacToe joinAndLeave(ThreadState state) {
+        String player = Thread.currentThread().getName() + "-" + state.newcomers++;
+        manager.joinGame(player);
+        return manager.leaveGame(player);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.tictactoe.benchmark;
+
+import com.example.tictactoe.enumeration.GameVariant;
+import com.example.tictactoe.model.TicTacToe;
+import com.example.tictactoe.model.dto.MoveMessage;
+import com.example.tictactoe.model.dto.TicTacToeMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the messages sent to the game topics: a full snapshot against a move delta.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageSerializationBenchmark {
+    private static final int BOARD_SIZE = GameVariant.GOMOKU.getSize();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private TicTacToe game;
+    private int lastMove;
+
+    @Setup
+    public void setUp() {
+        game = new TicTacToe("alice", "bob");
+        Random random = new Random(42);
+        while (game.getBoard().getStoneCount() < 60) {
+            lastMove = random.nextInt(BOARD_SIZE * BOARD_SIZE);
+            game.makeMove(game.getTurn(), lastMove);
+            game.setWinner(null);
+        }
+    }
+
+    @Benchmark
+    public byte[] fullSnapshot() throws Exception {
+        TicTacToeMessage message = new TicTacToeMessage(game);
+        message.setType("game.move");
+        return objectMapper.writeValueAsBytes(message);
+    }
+
+    @Benchmark
+    public byte[] moveDelta() throws Exception {
+        return objectMapper.writeValueAsBytes(new MoveMessage(game, lastMove));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.tictactoe.benchmark;
+
+import com.example.tictactoe.enumeration.GameVariant;
+import com.example.tictactoe.model.BitBoard;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of deciding whether a stone wins, per variant: a table lookup on 3x3, line counting on larger boards.
+ * The board holds a diagonal of stones one short of a win, which is the worst case for line counting.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WinCheckBenchmark {
+    @Param({"CLASSIC", "GOMOKU_15", "GOMOKU"})
+    public GameVariant variant;
+
+    private BitBoard board;
+    private int cell;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        board = variant.newBoard();
+        int size = variant.getSize();
+        for (int i = 0; i < variant.getWinLength() - 1; i++) {
+            board.place(i * size + i, BitBoard.X);
+        }
+        cell = (variant.getWinLength() / 2) * (size + 1);
+    }
+
+    @Benchmark
+    public boolean isWinningMove() {
+        return variant.isWinningMove(board, cell);
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.tictactoe.analytics;
+
+import com.example.tictactoe.enumeration.GameVariant;
+import com.example.tictactoe.model.GameMove;
+import com.example.tictactoe.model.dto.ExportedGame;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Offline statistics over an export of finished games, see {@link com.example.tictactoe.service.GameExportService}.
+ * <p>
+ * The export is read with a parallel stream. Every worker parses its share of the lines into its own
+ * {@link Report}, and the reports are merged at the end, so the workers share nothing while they run and the
+ * file is never loaded whole. Run it from the application jar:
+ * <pre>
+ * java -cp tictactoe.jar -Dloader.main=com.example.tictactoe.analytics.GameAnalytics \
+ *      org.springframework.boot.loader.launch.PropertiesLauncher games.ndjson [top-openings]
+ * </pre>
+ */
+public class GameAnalytics {
+    /**
+     * Number of moves that make up an opening.
+     */
+    public static final int OPENING_MOVES = 2;
+
+    private static final ObjectReader READER = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .readerFor(ExportedGame.class);
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: GameAnalytics <export.ndjson> [top-openings]");
+            System.exit(2);
+        }
+        int topOpenings = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        long start = System.nanoTime();
+        Report report = analyze(Path.of(args[0]));
+        System.out.print(report.format(topOpenings));
+        System.out.printf("Analyzed in %d ms%n", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Computes the statistics of an export file, in parallel.
+     */
+    public static Report analyze(Path export) throws IOException {
+        try (Stream<String> lines = Files.lines(export, StandardCharsets.UTF_8)) {
+            return analyze(lines.parallel());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Computes the statistics of the lines of an export, in parallel if the stream is parallel.
+     */
+    public static Report analyze(Stream<String> lines) {
+        return lines.filter(line -> !line.isBlank())
+                .map(GameAnalytics::parse)
+                .collect(Report::new, Report::add, Report::merge);
+    }
+
+    private static ExportedGame parse(String line) {
+        try {
+            return READER.readValue(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed export line: " + line, e);
+        }
+    }
+
+    /**
+     * Statistics of a set of games. Not thread-safe: each worker fills its own report, then they are merged.
+     */
+    public static class Report {
+        private long games;
+        private long firstPlayerWins;
+        private long secondPlayerWins;
+        private long ties;
+        private long totalMoves;
+        private final Map<GameVariant, Map<String, Long>> openings = new EnumMap<>(GameVariant.class);
+
+        void add(ExportedGame game) {
+            games++;
+            String winner = game.getWinner();
+            if (winner != null && winner.equals(game.getPlayer1())) {
+                firstPlayerWins++;
+            } else if (winner != null && winner.equals(game.getPlayer2())) {
+                secondPlayerWins++;
+            } else {
+                ties++;
+            }
+
+            int[] moves = game.getMoves() != null ? game.getMoves() : new int[0];
+            StringBuilder opening = new StringBuilder();
+            int played = 0;
+            for (int cell : moves) {
+                if (cell == GameMove.PASS) {
+                    continue;
+                }
+                if (played < OPENING_MOVES) {
+                    opening.append(played > 0 ? "," : "").append(cell);
+                }
+                played++;
+            }
+            // Older exports have the stone count read from the board of games saved before the move journal
+            totalMoves += moves.length > 0 ? played : game.getStones();
+            if (played >= OPENING_MOVES) {
+                GameVariant variant = GameVariant.orDefault(game.getVariant());
+                openings.computeIfAbsent(variant, v -> new HashMap<>()).merge(opening.toString(), 1L, Long::sum);
+            }
+        }
+
+        void merge(Report other) {
+            games += other.games;
+            firstPlayerWins += other.firstPlayerWins;
+            secondPlayerWins += other.secondPlayerWins;
+            ties += other.ties;
+            totalMoves += other.totalMoves;
+            other.openings.forEach((variant, counts) -> {
+                Map<String, Long> merged = openings.computeIfAbsent(variant, v -> new HashMap<>());
+                counts.forEach((opening, count) -> merged.merge(opening, count, Long::sum));
+            });
+        }
+
+        public long getGames() {
+            return games;
+        }
+
+        public long getFirstPlayerWins() {
+            return firstPlayerWins;
+        }
+
+        public long getSecondPlayerWins() {
+            return secondPlayerWins;
+        }
+
+        public long getTies() {
+            return ties;
+        }
+
+        /**
+         * Returns the share of all games won by the player who moved first.
+         */
+        public double getFirstPlayerWinRate() {
+            return games > 0 ? (double) firstPlayerWins / games : 0;
+        }
+
+        /**
+         * Returns the average number of stones placed per game.
+         */
+        public double getAverageGameLength() {
+            return games > 0 ? (double) totalMoves / games : 0;
+        }
+
+        /**
+         * Returns how often each opening, the first {@link #OPENING_MOVES} cells played, was played per variant.
+         */
+        public Map<GameVariant, Map<String, Long>> getOpenings() {
+            return openings;
+        }
+
+        String format(int topOpenings) {
+            StringBuilder out = new StringBuilder();
+            out.append(String.format("Games: %d%n", games));
+            out.append(String.format("First player wins: %d (%.1f%%), second player wins: %d, ties: %d%n",
+                    firstPlayerWins, 100 * getFirstPlayerWinRate(), secondPlayerWins, ties));
+            out.append(String.format("Average game length: %.1f moves%n", getAverageGameLength()));
+            openings.forEach((variant, counts) -> {
+                out.append(String.format("Top openings of %s:%n", variant));
+                counts.entrySet().stream()
+                        .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                                .thenComparing(Map.Entry.comparingByKey()))
+                        .limit(topOpenings)
+                        .forEachOrdered(entry -> out.append(String.format("  %-12s %d%n", entry.getKey(), entry.getValue())));
+            });
+            return out.toString();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.tictactoe.bot;
+
+import com.example.tictactoe.model.BitBoard;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Computer opponent for players who ask for one when nobody is waiting for a game.
+ * <p>
+ * All bot games share one fork-join pool and one transposition table, so the memory and threads used do not
+ * grow with the number of bot games. The move time is counted from the request, not from the start of the
+ * search, so when many bot games are waiting for the pool each still answers in time, with a shallower search.
+ */
+@Service
+public class BotPlayer {
+    /**
+     * The player name of the bot in its games.
+     */
+    public static final String NAME = "GomokuBot";
+
+    private static final Logger log = LoggerFactory.getLogger(BotPlayer.class);
+
+    private final ForkJoinPool pool;
+    private final GomokuBot bot;
+    private final long moveTimeNanos;
+
+    @Autowired
+    public BotPlayer(@Value("${tictactoe.bot.move-time-ms:1000}") long moveTimeMs,
+                     @Value("${tictactoe.bot.parallelism:0}") int parallelism,
+                     @Value("${tictactoe.bot.max-depth:10}") int maxDepth,
+                     @Value("${tictactoe.bot.branching:10}") int branching,
+                     @Value("${tictactoe.bot.table-bits:20}") int tableBits) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                pool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("gomoku-bot-" + thread.getPoolIndex());
+                    thread.setDaemon(true);
+                    return thread;
+                }, null, false);
+        this.bot = new GomokuBot(pool, tableBits, maxDepth, branching);
+        this.moveTimeNanos = TimeUnit.MILLISECONDS.toNanos(moveTimeMs);
+    }
+
+    /**
+     * Returns true if the given player is the bot.
+     */
+    public static boolean isBot(String player) {
+        return NAME.equals(player);
+    }
+
+    /**
+     * Chooses a move in the background.
+     *
+     * @param board  a copy of the board that nobody else modifies
+     * @param mark   the mark of the bot
+     * @param onMove receives the chosen cell, on a pool thread; not called if the board is full
+     */
+    public void requestMove(BitBoard board, char mark, IntConsumer onMove) {
+        long deadline = System.nanoTime() + moveTimeNanos;
+        CompletableFuture.supplyAsync(() -> bot.chooseMove(board, mark, deadline), pool)
+                .thenAccept(cell -> {
+                    if (cell >= 0) {
+                        onMove.accept(cell);
+                    }
+                })
+                .exceptionally(e -> {
+                    log.error("Bot move failed", e);
+                    return null;
+                });
+    }
+
+    /**
+     * Chooses a move on the calling thread, within the move time.
+     *
+     * @param board the board, which is not modified
+     * @param mark  the mark of the bot
+     * @return the chosen cell, or -1 if the board is full
+     */
+    public int chooseMove(BitBoard board, char mark) {
+        return bot.chooseMove(board, mark, System.nanoTime() + moveTimeNanos);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.tictactoe.bot;
+
+import com.example.tictactoe.model.BitBoard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gomoku move search: iterative deepening alpha-beta over the most promising moves near existing stones.
+ * <p>
+ * Each iteration searches the best move of the previous iteration first, then the remaining root moves in
+ * parallel on a fork-join pool, each against the best score found so far. Positions are cached in a
+ * {@link TranspositionTable} shared by all searches. The search stops at its deadline and answers with the best
+ * move of the last completed iteration, so a search that starts late still answers in time, only less deeply.
+ */
+public class GomokuBot {
+    private static final int INFINITY = Integer.MAX_VALUE - 1;
+    private static final int ROOT_MOVES = 16;
+    private static final int NODES_PER_CLOCK_CHECK = 1024;
+
+    private final ForkJoinPool pool;
+    private final TranspositionTable table;
+    private final int maxDepth;
+    private final int branching;
+
+    /**
+     * @param pool      the pool running the searches
+     * @param tableBits the base 2 logarithm of the number of transposition table slots
+     * @param maxDepth  the maximum search depth in moves
+     * @param branching the number of moves searched in each position below the root
+     */
+    public GomokuBot(ForkJoinPool pool, int tableBits, int maxDepth, int branching) {
+        this.pool = pool;
+        this.table = new TranspositionTable(tableBits);
+        this.maxDepth = maxDepth;
+        this.branching = branching;
+    }
+
+    /**
+     * Chooses a move, searching until the deadline at the latest.
+     *
+     * @param board    the board, which is not modified
+     * @param mark     the mark of the player to move
+     * @param deadline the {@link System#nanoTime()} by which to answer
+     * @return the chosen cell, or -1 if the board is full
+     */
+    public int chooseMove(BitBoard board, char mark, long deadline) {
+        Search search = new Search(SearchBoard.of(board), mark == BitBoard.X ? SearchBoard.X : SearchBoard.O,
+                deadline);
+        if (ForkJoinTask.getPool() == pool) {
+            return search.run();
+        }
+        return pool.invoke(ForkJoinTask.adapt(search::run));
+    }
+
+    /**
+     * One move search: the iterations over the root moves.
+     */
+    private final class Search {
+        private final SearchBoard root;
+        private final int color;
+        private final long deadline;
+
+        Search(SearchBoard root, int color, long deadline) {
+            this.root = root;
+            this.color = color;
+            this.deadline = deadline;
+        }
+
+        int run() {
+            int[] moves = new int[ROOT_MOVES];
+            int[] scores = new int[ROOT_MOVES];
+            int count = root.candidates(color, moves, scores, ROOT_MOVES);
+            if (count == 0) {
+                return -1;
+            }
+            if (count == 1 || scores[0] >= SearchBoard.WINNING_MOVE) {
+                return moves[0];
+            }
+            long start = System.nanoTime();
+            int best = moves[0];
+            for (int depth = 1; depth <= maxDepth; depth++) {
+                int[] result;
+                try {
+                    result = searchRoot(moves, count, depth);
+                } catch (SearchTimeout e) {
+                    break;
+                }
+                best = result[0];
+                moveToFront(moves, count, best);
+                if (Math.abs(result[1]) >= SearchBoard.WIN - maxDepth - 1) {
+                    break;
+                }
+                long now = System.nanoTime();
+                if (now - start > deadline - now) {
+                    // the next iteration takes longer than all previous ones together
+                    break;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Searches the root moves to the given depth.
+         *
+         * @return the best move and its score
+         */
+        private int[] searchRoot(int[] moves, int count, int depth) {
+            Searcher first = new Searcher(root.copy(), deadline);
+            int alpha = first.searchMove(moves[0], color, depth, -INFINITY, INFINITY);
+            AtomicInteger sharedAlpha = new AtomicInteger(alpha);
+
+            List<RootTask> tasks = new ArrayList<>(count - 1);
+            for (int i = 1; i < count; i++) {
+                tasks.add(new RootTask(moves[i], depth, sharedAlpha));
+            }
+            ForkJoinTask.invokeAll(tasks);
+
+            int bestMove = moves[0];
+            int bestScore = alpha;
+            for (RootTask task : tasks) {
+                int score = task.join();
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestMove = task.move;
+                }
+            }
+            return new int[]{bestMove, bestScore};
+        }
+
+        /**
+         * Searches one root move on its own copy of the board, first with a null window to prove it is
+         * no better than the best move so far.
+         */
+        private final class RootTask extends RecursiveTask<Integer> {
+            private static final long serialVersionUID = 1L;
+
+            private final int move;
+            private final int depth;
+            private final AtomicInteger sharedAlpha;
+
+            RootTask(int move, int depth, AtomicInteger sharedAlpha) {
+                this.move = move;
+                this.depth = depth;
+                this.sharedAlpha = sharedAlpha;
+            }
+
+            @Override
+            protected Integer compute() {
+                Searcher searcher = new Searcher(root.copy(), deadline);
+                int alpha = sharedAlpha.get();
+                int score = searcher.searchMove(move, color, depth, alpha, alpha + 1);
+                if (score > alpha) {
+                    score = searcher.searchMove(move, color, depth, alpha, INFINITY);
+                    sharedAlpha.accumulateAndGet(score, Math::max);
+                }
+                return score;
+            }
+        }
+    }
+
+    /**
+     * Alpha-beta search on one board, used by one thread at a time.
+     */
+    private final class Searcher {
+        private final SearchBoard board;
+        private final long deadline;
+        private final int[][] moves;
+        private final int[][] scores;
+        private long nodes;
+
+        Searcher(SearchBoard board, long deadline) {
+            this.board = board;
+            this.deadline = deadline;
+            this.moves = new int[maxDepth + 1][branching];
+            this.scores = new int[maxDepth + 1][branching];
+        }
+
+        /**
+         * Returns the score of playing the move for the given player, searched to the given depth.
+         */
+        int searchMove(int move, int color, int depth, int alpha, int beta) {
+            board.play(move, color);
+            try {
+                return -negamax(depth - 1, -beta, -alpha, 1, opponent(color));
+            } finally {
+                board.undo(move, color);
+            }
+        }
+
+        private int negamax(int depth, int alpha, int beta, int ply, int color) {
+            if (++nodes % NODES_PER_CLOCK_CHECK == 0 && System.nanoTime() - deadline > 0) {
+                throw new SearchTimeout();
+            }
+            if (board.isWon()) {
+                return -(SearchBoard.WIN - ply);
+            }
+            if (board.isFull()) {
+                return 0;
+            }
+            if (depth == 0) {
+                return board.evaluate(color);
+            }
+
+            long hash = board.hash(color);
+            long entry = table.probe(hash);
+            int hashMove = -1;
+            if (entry != 0) {
+                hashMove = TranspositionTable.move(entry);
+                if (TranspositionTable.depth(entry) >= depth) {
+                    int value = TranspositionTable.value(entry);
+                    int flag = TranspositionTable.flag(entry);
+                    if (flag == TranspositionTable.EXACT
+                            || flag == TranspositionTable.LOWER && value >= beta
+                            || flag == TranspositionTable.UPPER && value <= alpha) {
+                        return value;
+                    }
+                }
+            }
+
+            int[] plyMoves = moves[ply];
+            int count = board.candidates(color, plyMoves, scores[ply], branching);
+            if (scores[ply][0] >= SearchBoard.WINNING_MOVE) {
+                return SearchBoard.WIN - ply - 1;
+            }
+            if (hashMove >= 0) {
+                moveToFront(plyMoves, count, hashMove);
+            }
+
+            int originalAlpha = alpha;
+            int bestScore = -INFINITY;
+            int bestMove = -1;
+            for (int i = 0; i < count && alpha < beta; i++) {
+                int move = plyMoves[i];
+                board.play(move, color);
+                int score;
+                try {
+                    score = -negamax(depth - 1, -beta, -alpha, ply + 1, opponent(color));
+                } finally {
+                    board.undo(move, color);
+                }
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestMove = move;
+                    alpha = Math.max(alpha, score);
+                }
+            }
+
+            int flag = bestScore <= originalAlpha ? TranspositionTable.UPPER
+                    : bestScore >= beta ? TranspositionTable.LOWER
+                    : TranspositionTable.EXACT;
+            table.store(hash, depth, bestScore, flag, bestMove);
+            return bestScore;
+        }
+    }
+
+    private static int opponent(int color) {
+        return color == SearchBoard.X ? SearchBoard.O : SearchBoard.X;
+    }
+
+    /**
+     * Moves a move to the front of the list, if it is in the first count entries.
+     */
+    private static void moveToFront(int[] moves, int count, int move) {
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                System.arraycopy(moves, 0, moves, 1, i);
+                moves[0] = move;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Thrown to abandon an iteration when the deadline has passed.
+     */
+    private static final class SearchTimeout extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        SearchTimeout() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.tictactoe.bot;
+
+import com.example.tictactoe.model.BitBoard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mutable board used by the search, with incremental evaluation and Zobrist hashing.
+ * <p>
+ * The board is divided into all windows of five cells in the four directions. A window holding stones of only
+ * one player is worth {@link #WEIGHTS}[stones] to that player, so placing or removing a stone only updates
+ * the at most twenty windows through its cell.
+ */
+final class SearchBoard {
+    static final int EMPTY = 0;
+    static final int X = 1;
+    static final int O = 2;
+    static final int WIN = 10_000_000;
+
+    private static final int LENGTH = 5;
+    private static final int[] WEIGHTS = {0, 1, 12, 150, 2_000, 0};
+    /**
+     * Value of playing into a window holding the given number of own stones and no opponent stones.
+     */
+    private static final int[] ATTACK = {1, 12, 150, 2_500, 1_000_000};
+    /**
+     * Value of playing into a window holding the given number of opponent stones and no own stones.
+     */
+    private static final int[] DEFENSE = {0, 10, 120, 1_500, 500_000};
+    static final int WINNING_MOVE = ATTACK[LENGTH - 1];
+
+    private static final Map<Integer, Geometry> GEOMETRIES = new ConcurrentHashMap<>();
+
+    private final Geometry geometry;
+    private final byte[] cells;
+    private final byte[] xCount;
+    private final byte[] oCount;
+    private final short[] near;
+    private int eval;
+    private long hash;
+    private int stones;
+    private boolean won;
+
+    private SearchBoard(Geometry geometry) {
+        this.geometry = geometry;
+        this.cells = new byte[geometry.cellCount];
+        this.xCount = new byte[geometry.windowCells.length];
+        this.oCount = new byte[geometry.windowCells.length];
+        this.near = new short[geometry.cellCount];
+    }
+
+    private SearchBoard(SearchBoard other) {
+        this.geometry = other.geometry;
+        this.cells = other.cells.clone();
+        this.xCount = other.xCount.clone();
+        this.oCount = other.oCount.clone();
+        this.near = other.near.clone();
+        this.eval = other.eval;
+        this.hash = other.hash;
+        this.stones = other.stones;
+        this.won = other.won;
+    }
+
+    /**
+     * Builds a search board with the stones of a game board.
+     */
+    static SearchBoard of(BitBoard board) {
+        SearchBoard searchBoard = new SearchBoard(GEOMETRIES.computeIfAbsent(board.getSize(), Geometry::new));
+        for (int cell = 0; cell < board.getCellCount(); cell++) {
+            char mark = board.get(cell);
+            if (mark != BitBoard.EMPTY) {
+                searchBoard.play(cell, mark == BitBoard.X ? X : O);
+            }
+        }
+        searchBoard.won = false;
+        return searchBoard;
+    }
+
+    SearchBoard copy() {
+        return new SearchBoard(this);
+    }
+
+    int getCellCount() {
+        return geometry.cellCount;
+    }
+
+    int getStoneCount() {
+        return stones;
+    }
+
+    /**
+     * Returns true if the last stone played completed five in a row.
+     */
+    boolean isWon() {
+        return won;
+    }
+
+    boolean isFull() {
+        return stones == geometry.cellCount;
+    }
+
+    /**
+     * Returns the Zobrist hash of the position, including the player to move.
+     */
+    long hash(int color) {
+        return color == X ? hash : hash ^ geometry.sideToMove;
+    }
+
+    /**
+     * Returns the static value of the position for the given player.
+     */
+    int evaluate(int color) {
+        return color == X ? eval : -eval;
+    }
+
+    void play(int cell, int color) {
+        for (int window : geometry.cellWindows[cell]) {
+            int before = windowValue(window);
+            int count = color == X ? ++xCount[window] : ++oCount[window];
+            if (count == LENGTH) {
+                won = true;
+            }
+            eval += windowValue(window) - before;
+        }
+        cells[cell] = (byte) color;
+        hash ^= geometry.zobrist[color][cell];
+        stones++;
+        for (int neighbour : geometry.neighbours[cell]) {
+            near[neighbour]++;
+        }
+    }
+
+    void undo(int cell, int color) {
+        for (int window : geometry.cellWindows[cell]) {
+            int before = windowValue(window);
+            if (color == X) {
+                xCount[window]--;
+            } else {
+                oCount[window]--;
+            }
+            eval += windowValue(window) - before;
+        }
+        cells[cell] = EMPTY;
+        hash ^= geometry.zobrist[color][cell];
+        stones--;
+        for (int neighbour : geometry.neighbours[cell]) {
+            near[neighbour]--;
+        }
+        won = false;
+    }
+
+    private int windowValue(int window) {
+        int x = xCount[window];
+        int o = oCount[window];
+        if (x > 0 && o > 0) {
+            return 0;
+        }
+        return x > 0 ? WEIGHTS[x] : -WEIGHTS[o];
+    }
+
+    /**
+     * Returns how urgent it is for the given player to play on the cell, by the threats it creates and blocks.
+     */
+    int moveScore(int cell, int color) {
+        int score = 0;
+        for (int window : geometry.cellWindows[cell]) {
+            int own = color == X ? xCount[window] : oCount[window];
+            int opponent = color == X ? oCount[window] : xCount[window];
+            if (opponent == 0) {
+                score += ATTACK[own];
+            } else if (own == 0) {
+                score += DEFENSE[opponent];
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Collects the most promising moves: empty cells at most two cells away from a stone, best first.
+     *
+     * @param color  the player to move
+     * @param moves  receives the moves
+     * @param scores receives the scores of the moves
+     * @param limit  the maximum number of moves
+     * @return the number of moves collected
+     */
+    int candidates(int color, int[] moves, int[] scores, int limit) {
+        if (stones == 0) {
+            moves[0] = geometry.center;
+            scores[0] = 0;
+            return 1;
+        }
+        int count = 0;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] != EMPTY || near[cell] == 0) {
+                continue;
+            }
+            int score = moveScore(cell, color);
+            if (count == limit && score <= scores[count - 1]) {
+                continue;
+            }
+            int i = count < limit ? count++ : count - 1;
+            while (i > 0 && scores[i - 1] < score) {
+                moves[i] = moves[i - 1];
+                scores[i] = scores[i - 1];
+                i--;
+            }
+            moves[i] = cell;
+            scores[i] = score;
+        }
+        return count;
+    }
+
+    /**
+     * Cell lists and random keys shared by all boards of one size.
+     */
+    private static final class Geometry {
+        final int cellCount;
+        final int center;
+        final int[][] windowCells;
+        final int[][] cellWindows;
+        final int[][] neighbours;
+        final long[][] zobrist;
+        final long sideToMove;
+
+        Geometry(int size) {
+            cellCount = size * size;
+            center = (size / 2) * size + size / 2;
+
+            int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+            List<int[]> windows = new ArrayList<>();
+            for (int[] direction : directions) {
+                for (int row = 0; row < size; row++) {
+                    for (int col = 0; col < size; col++) {
+                        int endRow = row + (LENGTH - 1) * direction[0];
+                        int endCol = col + (LENGTH - 1) * direction[1];
+                        if (endRow < 0 || endRow >= size || endCol < 0 || endCol >= size) {
+                            continue;
+                        }
+                        int[] window = new int[LENGTH];
+                        for (int k = 0; k < LENGTH; k++) {
+                            window[k] = (row + k * direction[0]) * size + col + k * direction[1];
+                        }
+                        windows.add(window);
+                    }
+                }
+            }
+            windowCells = windows.toArray(new int[0][]);
+
+            int[] windowsPerCell = new int[cellCount];
+            for (int[] window : windowCells) {
+                for (int cell : window) {
+                    windowsPerCell[cell]++;
+                }
+            }
+            cellWindows = new int[cellCount][];
+            for (int cell = 0; cell < cellCount; cell++) {
+                cellWindows[cell] = new int[windowsPerCell[cell]];
+                windowsPerCell[cell] = 0;
+            }
+            for (int window = 0; window < windowCells.length; window++) {
+                for (int cell : windowCells[window]) {
+                    cellWindows[cell][windowsPerCell[cell]++] = window;
+                }
+            }
+
+            neighbours = new int[cellCount][];
+            for (int cell = 0; cell < cellCount; cell++) {
+                List<Integer> list = new ArrayList<>();
+                int row = cell / size;
+                int col = cell % size;
+                for (int r = Math.max(0, row - 2); r <= Math.min(size - 1, row + 2); r++) {
+                    for (int c = Math.max(0, col - 2); c <= Math.min(size - 1, col + 2); c++) {
+                        if (r != row || c != col) {
+                            list.add(r * size + c);
+                        }
+                    }
+                }
+                neighbours[cell] = list.stream().mapToInt(Integer::intValue).toArray();
+            }
+
+            Random random = new Random(size);
+            zobrist = new long[3][cellCount];
+            for (int color = X; color <= O; color++) {
+                for (int cell = 0; cell < cellCount; cell++) {
+                    zobrist[color][cell] = random.nextLong();
+                }
+            }
+            sideToMove = random.nextLong();
+        }
+    }
+}
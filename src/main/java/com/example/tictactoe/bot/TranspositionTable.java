@@ -0,0 +1,72 @@
+package com.example.tictactoe.bot;
+
+/**
+ * Fixed-size table of search results keyed by Zobrist hash, shared by all searches and threads without locking.
+ * <p>
+ * Each slot holds the key XOR-ed with the packed entry next to the entry itself. A slot torn by two threads
+ * writing at once no longer decodes to its key, so it reads as a miss instead of a wrong result.
+ */
+final class TranspositionTable {
+    static final int EXACT = 0;
+    static final int LOWER = 1;
+    static final int UPPER = 2;
+
+    private static final long PRESENT = 1L << 63;
+
+    private final long[] keys;
+    private final long[] entries;
+    private final int mask;
+
+    /**
+     * @param bits the base 2 logarithm of the number of slots
+     */
+    TranspositionTable(int bits) {
+        int size = 1 << bits;
+        keys = new long[size];
+        entries = new long[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Returns the packed entry for the given hash, or 0 if there is none.
+     */
+    long probe(long hash) {
+        int slot = (int) hash & mask;
+        long entry = entries[slot];
+        return entry != 0 && (keys[slot] ^ entry) == hash ? entry : 0;
+    }
+
+    void store(long hash, int depth, int value, int flag, int move) {
+        int slot = (int) hash & mask;
+        long old = entries[slot];
+        if (old != 0 && (keys[slot] ^ old) == hash && depth(old) > depth) {
+            return;
+        }
+        long entry = PRESENT
+                | (long) (move + 1) << 42
+                | (long) flag << 40
+                | (long) depth << 32
+                | (value & 0xffffffffL);
+        entries[slot] = entry;
+        keys[slot] = hash ^ entry;
+    }
+
+    static int value(long entry) {
+        return (int) entry;
+    }
+
+    static int depth(long entry) {
+        return (int) (entry >>> 32) & 0xff;
+    }
+
+    static int flag(long entry) {
+        return (int) (entry >>> 40) & 0x3;
+    }
+
+    /**
+     * Returns the best move of the entry, or -1 if none is known.
+     */
+    static int move(long entry) {
+        return ((int) (entry >>> 42) & 0x1fffff) - 1;
+    }
+}
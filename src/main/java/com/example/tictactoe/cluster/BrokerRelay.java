@@ -0,0 +1,63 @@
+package com.example.tictactoe.cluster;
+
+import java.util.Set;
+
+/**
+ * Carries messages between the nodes of a cluster.
+ * <p>
+ * Topic messages are published to every other node, which passes them to its local broker so that clients
+ * connected to any node receive them. Client messages for a game owned by another node are sent to that node only.
+ * Payloads are JSON, so an implementation can carry them over a real message broker.
+ */
+public interface BrokerRelay {
+
+    /**
+     * Adds a node to the cluster. Every member, including the new one, is told about the new membership.
+     *
+     * @param nodeId   the unique ID of the node
+     * @param listener receives the messages for the node
+     */
+    void join(String nodeId, Listener listener);
+
+    /**
+     * Removes a node from the cluster and tells the remaining members.
+     */
+    void leave(String nodeId);
+
+    /**
+     * Returns the IDs of the current members.
+     */
+    Set<String> getNodes();
+
+    /**
+     * Delivers a message to the local broker of every node except the sender.
+     *
+     * @param fromNodeId  the sending node
+     * @param destination the broker destination, e.g. {@code /topic/game.123}
+     * @param payload     the JSON payload
+     */
+    void publish(String fromNodeId, String destination, byte[] payload);
+
+    /**
+     * Delivers a client message to one node, which handles it as if its own client had sent it.
+     *
+     * @param toNodeId    the receiving node
+     * @param fromNodeId  the sending node
+     * @param destination the application destination, e.g. {@code /app/game.move}
+     * @param payload     the JSON payload
+     * @return false if the receiving node is not a member
+     */
+    boolean send(String toNodeId, String fromNodeId, String destination, byte[] payload);
+
+    /**
+     * Receives the messages and membership changes for one node.
+     */
+    interface Listener {
+
+        void onPublish(String fromNodeId, String destination, byte[] payload);
+
+        void onSend(String fromNodeId, String destination, byte[] payload);
+
+        void onMembershipChange(Set<String> nodes);
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.tictactoe.cluster;
+
+import com.example.tictactoe.manager.TicTacToeManager;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Membership of this node in the cluster and routing of games to their owner nodes.
+ * <p>
+ * Every game is owned by the node that created it, and the game ID starts with the ID of that node, so every node
+ * can tell the owner of a game without asking, and a game stays with its owner when nodes join or leave. Players
+ * who join on a node are matched with other players on the same node. Client messages for a game owned by another
+ * node are forwarded to it through the {@link BrokerRelay}, and topic messages are published to all nodes, so
+ * players and spectators can be connected to any node.
+ * <p>
+ * IDs that don't name a current member, such as those of games whose node has left, are mapped to a node by a
+ * {@link ConsistentHashRing}, and the game is unknown there. A node that restarts with the same configured node ID
+ * owns the games it recovers again; a node without a configured ID gets a new random one on every start, so it
+ * warns when it recovers games and has other members, since those members route the games elsewhere.
+ * <p>
+ * A node without other members runs as a cluster of one and never touches the relay. Without a {@link BrokerRelay}
+ * bean of its own, the application uses an {@link InMemoryBrokerRelay} and runs as a single node; nodes in one JVM,
+ * as in tests, share one relay registered before the contexts start.
+ */
+@Service
+public class ClusterService implements BrokerRelay.Listener {
+    /**
+     * Header set on client messages forwarded from another node, holding the ID of that node.
+     * Forwarded messages are always handled locally, never forwarded again.
+     */
+    public static final String FORWARDED_FROM = "tictactoe-forwarded-from";
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterService.class);
+    private static final char OWNER_SEPARATOR = ':';
+
+    private final String nodeId;
+    private final boolean randomNodeId;
+    private final boolean recoveryEnabled;
+    private final int pointsPerNode;
+    private final BrokerRelay relay;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MessageChannel clientInboundChannel;
+    private final ObjectMapper objectMapper;
+    private final TicTacToeManager ticTacToeManager;
+    private volatile ConsistentHashRing ring;
+
+    @Autowired
+    public ClusterService(ObjectProvider<BrokerRelay> relay, SimpMessagingTemplate messagingTemplate,
+                          @Qualifier("clientInboundChannel") MessageChannel clientInboundChannel,
+                          ObjectMapper objectMapper, TicTacToeManager ticTacToeManager,
+                          @Value("${tictactoe.cluster.node-id:}") String nodeId,
+                          @Value("${tictactoe.cluster.points-per-node:128}") int pointsPerNode,
+                          @Value("${tictactoe.recovery.enabled:true}") boolean recoveryEnabled) {
+        this.randomNodeId = nodeId.isEmpty();
+        this.nodeId = randomNodeId ? UUID.randomUUID().toString() : nodeId;
+        this.recoveryEnabled = recoveryEnabled;
+        this.pointsPerNode = pointsPerNode;
+        this.relay = relay.getIfAvailable(InMemoryBrokerRelay::new);
+        this.messagingTemplate = messagingTemplate;
+        this.clientInboundChannel = clientInboundChannel;
+        this.objectMapper = objectMapper;
+        this.ticTacToeManager = ticTacToeManager;
+        this.ring = new ConsistentHashRing(Set.of(this.nodeId), pointsPerNode);
+    }
+
+    @PostConstruct
+    public void start() {
+        ticTacToeManager.setGameIdGenerator(this::newGameId);
+        relay.join(nodeId, this);
+    }
+
+    @PreDestroy
+    public void stop() {
+        relay.leave(nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Returns the ID of the node owning the given game.
+     */
+    public String ownerOf(String gameId) {
+        ConsistentHashRing current = ring;
+        int separator = gameId.lastIndexOf(OWNER_SEPARATOR);
+        if (separator > 0) {
+            String owner = gameId.substring(0, separator);
+            if (current.getNodes().contains(owner)) {
+                return owner;
+            }
+        }
+        return current.ownerOf(gameId);
+    }
+
+    /**
+     * Generates an ID for a new game that this node owns, the node ID followed by a random UUID.
+     */
+    public String newGameId() {
+        return nodeId + OWNER_SEPARATOR + UUID.randomUUID();
+    }
+
+    /**
+     * Forwards a client message for a game to the game's owner, unless this node owns it.
+     *
+     * @param gameId      the ID of the game
+     * @param destination the application destination the client sent the message to
+     * @param payload     the message
+     * @return true if the message was forwarded and must not be handled here
+     */
+    public boolean forwardToOwner(String gameId, String destination, Object payload) {
+        if (gameId == null) {
+            return false;
+        }
+        String owner = ownerOf(gameId);
+        if (nodeId.equals(owner)) {
+            return false;
+        }
+        return relay.send(owner, nodeId, destination, toJson(payload));
+    }
+
+    /**
+     * Publishes a broker message to the other nodes. The caller sends it to the local broker itself.
+     *
+     * @param destination the broker destination
+     * @param payload     the message encoded as JSON
+     */
+    public void publish(String destination, byte[] payload) {
+        if (ring.getNodes().size() > 1) {
+            relay.publish(nodeId, destination, payload);
+        }
+    }
+
+    @Override
+    public void onPublish(String fromNodeId, String destination, byte[] payload) {
+        messagingTemplate.send(destination, GameEventPublisher.toMessage(payload));
+    }
+
+    @Override
+    public void onSend(String fromNodeId, String destination, byte[] payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        accessor.setSessionId("cluster-" + fromNodeId);
+        accessor.setSessionAttributes(new ConcurrentHashMap<>());
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setHeader(FORWARDED_FROM, fromNodeId);
+        clientInboundChannel.send(MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+    }
+
+    @Override
+    public void onMembershipChange(Set<String> nodes) {
+        boolean wasAlone = ring.getNodes().size() <= 1;
+        ring = new ConsistentHashRing(nodes, pointsPerNode);
+        log.info("Node {}: cluster members are now {}", nodeId, nodes);
+        if (wasAlone && nodes.size() > 1 && randomNodeId && recoveryEnabled) {
+            log.warn("Node {} recovers live games but has a random node ID, so after a restart the other members "
+                    + "route its recovered games elsewhere. Configure tictactoe.cluster.node-id on every node.", nodeId);
+        }
+    }
+
+    private byte[] toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize " + payload.getClass().getSimpleName(), e);
+        }
+    }
+}
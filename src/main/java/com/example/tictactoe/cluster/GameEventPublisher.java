@@ -0,0 +1,172 @@
+package com.example.tictactoe.cluster;
+
+import com.example.tictactoe.enumeration.GameState;
+import com.example.tictactoe.model.TicTacToe;
+import com.example.tictactoe.model.dto.TicTacToeMessage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends messages to the clients of all nodes: to the local broker, and through the cluster to the other nodes.
+ * <p>
+ * Every message is encoded to JSON once, and the same bytes go to the local broker, which hands them to each
+ * subscriber, and to the other nodes. Game snapshots are also cached per game until the game changes, so
+ * repeated snapshots of the same state, e.g. the answers to several clients asking for a resync, are encoded
+ * only once. The cache holds at most a configured number of games and drops the least recently used one when it is
+ * full, so games that ended without being forgotten are evicted before live ones.
+ */
+@Component
+public class GameEventPublisher {
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ClusterService clusterService;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Snapshot> snapshots;
+
+    @Autowired
+    public GameEventPublisher(SimpMessagingTemplate messagingTemplate, ClusterService clusterService,
+                              ObjectMapper objectMapper,
+                              @Value("${tictactoe.publisher.snapshot-cache-size:100000}") int snapshotCacheSize) {
+        this.messagingTemplate = messagingTemplate;
+        this.clusterService = clusterService;
+        this.objectMapper = objectMapper;
+        // Only lookups and inserts run under the map's lock, encoding happens outside of it
+        this.snapshots = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Snapshot> eldest) {
+                return size() > snapshotCacheSize;
+            }
+        });
+    }
+
+    /**
+     * Sends a message to the subscribers of a topic, on every node.
+     *
+     * @param destination the destination, e.g. {@code /topic/game.123}
+     * @param payload     the message
+     */
+    public void publish(String destination, Object payload) {
+        publishEncoded(destination, encode(payload));
+    }
+
+    /**
+     * Sends the full state of a game to the subscribers of the game's topic, on every node.
+     * The caller must hold the game's lock.
+     *
+     * @param game the game
+     * @param type the message type, e.g. {@code game.sync}
+     */
+    public void publishSnapshot(TicTacToe game, String type) {
+        publishSnapshot("/topic/game." + game.getGameId(), game, type);
+    }
+
+    /**
+     * Sends the full state of a game to the subscribers of a topic, on every node.
+     * The caller must hold the game's lock.
+     *
+     * @param destination the destination, e.g. {@code /topic/spectate.123}
+     * @param game        the game
+     * @param type        the message type
+     */
+    public void publishSnapshot(String destination, TicTacToe game, String type) {
+        publishEncoded(destination, encodeSnapshot(game, type));
+    }
+
+    /**
+     * Sends a message to the sessions of one user, on whichever node they are connected to.
+     *
+     * @param user        the name of the user
+     * @param destination the user destination, e.g. {@code /queue/errors}
+     * @param payload     the message
+     */
+    public void publishToUser(String user, String destination, Object payload) {
+        publishEncoded("/user/" + user + destination, encode(payload));
+    }
+
+    /**
+     * Drops the cached snapshot of a game that has ended.
+     *
+     * @param gameId the ID of the game
+     */
+    public void forget(String gameId) {
+        snapshots.remove(gameId);
+    }
+
+    /**
+     * Returns the encoded snapshot of a game, encoding it only if the game changed since the last call.
+     * The caller must hold the game's lock, and can send the snapshot with {@link #publishEncoded} after
+     * releasing it.
+     *
+     * @param game the game
+     * @param type the message type
+     */
+    public byte[] encodeSnapshot(TicTacToe game, String type) {
+        SnapshotKey key = new SnapshotKey(game.getSequence(), game.getRound(), game.getPlayer1(), game.getPlayer2(),
+                game.getTurn(), game.getGameState(), game.getWinner(), game.getLastMoveTime(), game.getStartTime());
+        Snapshot cached = snapshots.get(game.getGameId());
+        if (cached == null || !cached.key.equals(key)) {
+            cached = new Snapshot(key, new ConcurrentHashMap<>());
+            snapshots.put(game.getGameId(), cached);
+        }
+        return cached.payloads.computeIfAbsent(type, t -> {
+            TicTacToeMessage message = new TicTacToeMessage(game);
+            message.setType(t);
+            return encode(message);
+        });
+    }
+
+    /**
+     * Sends a message encoded by this publisher, e.g. by {@link #encodeSnapshot}, on every node.
+     *
+     * @param destination the destination
+     * @param payload     the encoded message
+     */
+    public void publishEncoded(String destination, byte[] payload) {
+        messagingTemplate.send(destination, toMessage(payload));
+        clusterService.publish(destination, payload);
+    }
+
+    private byte[] encode(Object payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize " + payload.getClass().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Wraps an encoded payload in a broker message, which the broker sends as is without converting it again.
+     */
+    static Message<byte[]> toMessage(byte[] payload) {
+        return MessageBuilder.withPayload(payload)
+                .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
+                .build();
+    }
+
+    /**
+     * Everything a snapshot message is built from apart from the board, which only changes with the sequence
+     * or the round.
+     */
+    private record SnapshotKey(long sequence, int round, String player1, String player2, String turn,
+                               GameState gameState, String winner, Date lastMoveTime, Date startTime) {
+    }
+
+    /**
+     * The encoded messages of one game state, by message type.
+     */
+    private record Snapshot(SnapshotKey key, Map<String, byte[]> payloads) {
+    }
+}
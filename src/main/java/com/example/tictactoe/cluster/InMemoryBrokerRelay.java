@@ -0,0 +1,57 @@
+package com.example.tictactoe.cluster;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Relay between nodes running in the same JVM, as in tests. A single node uses it to run as a cluster of one.
+ * <p>
+ * Messages are delivered on the sender's thread. Receiving nodes only hand them to their channels,
+ * which process them on their own executors.
+ */
+public class InMemoryBrokerRelay implements BrokerRelay {
+    private final Map<String, Listener> nodes = new ConcurrentSkipListMap<>();
+
+    @Override
+    public synchronized void join(String nodeId, Listener listener) {
+        nodes.put(nodeId, listener);
+        announceMembers();
+    }
+
+    @Override
+    public synchronized void leave(String nodeId) {
+        if (nodes.remove(nodeId) != null) {
+            announceMembers();
+        }
+    }
+
+    @Override
+    public Set<String> getNodes() {
+        return Set.copyOf(nodes.keySet());
+    }
+
+    @Override
+    public void publish(String fromNodeId, String destination, byte[] payload) {
+        nodes.forEach((nodeId, listener) -> {
+            if (!nodeId.equals(fromNodeId)) {
+                listener.onPublish(fromNodeId, destination, payload);
+            }
+        });
+    }
+
+    @Override
+    public boolean send(String toNodeId, String fromNodeId, String destination, byte[] payload) {
+        Listener listener = nodes.get(toNodeId);
+        if (listener == null) {
+            return false;
+        }
+        listener.onSend(fromNodeId, destination, payload);
+        return true;
+    }
+
+    private void announceMembers() {
+        Set<String> members = getNodes();
+        nodes.values().forEach(listener -> listener.onMembershipChange(members));
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.tictactoe.config;
+
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Factory for the executors that run the STOMP channels.
+ * <p>
+ * Both kinds are {@link ThreadPoolTaskExecutor}s, so Spring manages them the same way and the channel metrics
+ * can read their queues. The virtual kind needs Java 21.
+ */
+public final class ChannelExecutors {
+    private static final int KEEP_ALIVE_SECONDS = 60;
+
+    private ChannelExecutors() {
+    }
+
+    /**
+     * Creates a fixed pool of platform threads, like Spring's default channel executor.
+     *
+     * @param threadNamePrefix the prefix of the thread names
+     * @param poolSize         the number of threads, or 0 for twice the number of processors
+     * @param queueCapacity    the maximum number of waiting messages
+     */
+    public static ThreadPoolTaskExecutor platform(String threadNamePrefix, int poolSize, int queueCapacity) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors() * 2;
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setKeepAliveSeconds(KEEP_ALIVE_SECONDS);
+        executor.setAllowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Creates an executor that runs every message on a virtual thread, up to the given number at once.
+     * A message blocked on I/O parks its virtual thread and frees the carrier thread for other messages,
+     * so the limit can be far higher than a platform pool.
+     *
+     * @param threadNamePrefix the prefix of the thread names
+     * @param maxConcurrency   the maximum number of messages handled at once, further messages wait in the queue
+     * @throws UnsupportedOperationException before Java 21
+     */
+    public static ThreadPoolTaskExecutor virtual(String threadNamePrefix, int maxConcurrency) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadFactory(new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory());
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setKeepAliveSeconds(KEEP_ALIVE_SECONDS);
+        executor.setAllowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
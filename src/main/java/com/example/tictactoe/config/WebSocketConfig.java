@@ -1,7 +1,19 @@
 package com.example.tictactoe.config;
 
+import com.example.tictactoe.service.MoveRateLimiter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
@@ -10,10 +22,34 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
  * Configuration class for setting up WebSocket messaging in the application.
  * <p>
  * Enables the use of STOMP (Simple Text Oriented Messaging Protocol) for sending messages between clients and servers.
+ * <p>
+ * Messages from and to the clients are handled on fixed pools of platform threads. On Java 21, with
+ * {@code spring.threads.virtual.enabled=true}, they are handled on virtual threads instead, so handlers that block
+ * on the database no longer hold a platform thread.
  */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+    private final boolean virtualThreads;
+    private final int inboundPoolSize;
+    private final int outboundPoolSize;
+    private final int queueCapacity;
+    private final int virtualMaxConcurrency;
+    private final MoveRateLimiter moveRateLimiter;
+
+    @Autowired
+    public WebSocketConfig(Environment environment, MoveRateLimiter moveRateLimiter,
+                           @Value("${tictactoe.websocket.inbound-pool-size:0}") int inboundPoolSize,
+                           @Value("${tictactoe.websocket.outbound-pool-size:0}") int outboundPoolSize,
+                           @Value("${tictactoe.websocket.queue-capacity:2147483647}") int queueCapacity,
+                           @Value("${tictactoe.websocket.virtual-max-concurrency:10000}") int virtualMaxConcurrency) {
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+        this.inboundPoolSize = inboundPoolSize;
+        this.outboundPoolSize = outboundPoolSize;
+        this.queueCapacity = queueCapacity;
+        this.virtualMaxConcurrency = virtualMaxConcurrency;
+        this.moveRateLimiter = moveRateLimiter;
+    }
 
     /**
      * Registers the "/ws" endpoint, allowing clients to connect to the WebSocket message broker.
@@ -39,4 +75,57 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.enableSimpleBroker("/queue", "/topic", "/user");
         registry.setUserDestinationPrefix("/user");
     }
+
+    /**
+     * Sets the executor for messages received from the clients, which runs the {@code @MessageMapping} methods,
+     * and drops moves and resync requests of clients over their rate limit before they are queued, see
+     * {@link MoveRateLimiter}.
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(channelExecutor("clientInboundChannel-", inboundPoolSize));
+        registration.interceptors(moveRateLimiter);
+    }
+
+    /**
+     * Sets the executor for messages sent to the clients.
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(channelExecutor("clientOutboundChannel-", outboundPoolSize));
+    }
+
+    private ThreadPoolTaskExecutor channelExecutor(String threadNamePrefix, int poolSize) {
+        if (virtualThreads) {
+            return ChannelExecutors.virtual(threadNamePrefix, virtualMaxConcurrency);
+        }
+        return ChannelExecutors.platform(threadNamePrefix, poolSize, queueCapacity);
+    }
+
+    /**
+     * Exposes the number of messages waiting in each STOMP channel and the threads busy handling them.
+     * Inbound messages come from the clients and outbound messages go to them. Messages the application sends
+     * to the broker, e.g. through {@code SimpMessagingTemplate}, are handled on the sending thread, which keeps
+     * the messages of a game in order, so the broker channel has no executor to measure.
+     */
+    @Bean
+    public MeterBinder brokerChannelMetrics(
+            @Qualifier("clientInboundChannelExecutor") ThreadPoolTaskExecutor inbound,
+            @Qualifier("clientOutboundChannelExecutor") ThreadPoolTaskExecutor outbound) {
+        return registry -> {
+            bindChannel(registry, "inbound", inbound);
+            bindChannel(registry, "outbound", outbound);
+        };
+    }
+
+    private static void bindChannel(MeterRegistry registry, String channel, ThreadPoolTaskExecutor executor) {
+        Gauge.builder("tictactoe.broker.queue", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Messages waiting in a STOMP channel")
+                .tag("channel", channel)
+                .register(registry);
+        Gauge.builder("tictactoe.broker.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Threads handling messages of a STOMP channel")
+                .tag("channel", channel)
+                .register(registry);
+    }
 }
@@ -0,0 +1,156 @@
+package com.example.tictactoe.controller;
+
+import com.example.tictactoe.config.WebMvcConfig;
+import com.example.tictactoe.enumeration.GameState;
+import com.example.tictactoe.manager.TicTacToeManager;
+import com.example.tictactoe.model.TicTacToe;
+import com.example.tictactoe.model.dto.GameHistoryPage;
+import com.example.tictactoe.model.dto.GameSummary;
+import com.example.tictactoe.model.dto.TicTacToeMessage;
+import com.example.tictactoe.service.GameExportService;
+import com.example.tictactoe.service.MoveJournalService;
+import com.example.tictactoe.service.SpectatorService;
+import com.example.tictactoe.service.TicTacToeService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+/**
+ * REST controller for reading game data outside the live WebSocket session.
+ */
+@RestController
+@RequestMapping("/api/games")
+public class GameApiController {
+    private static final int MAX_LIVE_GAMES = 500;
+    private static final int MAX_HISTORY_GAMES = 100;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final MoveJournalService moveJournalService;
+    private final TicTacToeManager ticTacToeManager;
+    private final SpectatorService spectatorService;
+    private final TicTacToeService ticTacToeService;
+    private final GameExportService gameExportService;
+
+    /**
+     * Held while an export runs. An export holds a database connection and a snapshot transaction for as long as
+     * it takes, so only one runs at a time.
+     */
+    private final Semaphore exportPermit = new Semaphore(1);
+    private final long exportTimeoutMs;
+
+    @Autowired
+    public GameApiController(MoveJournalService moveJournalService, TicTacToeManager ticTacToeManager,
+                             SpectatorService spectatorService, TicTacToeService ticTacToeService,
+                             GameExportService gameExportService,
+                             @Value("${tictactoe.export.timeout-ms:3600000}") long exportTimeoutMs) {
+        this.moveJournalService = moveJournalService;
+        this.ticTacToeManager = ticTacToeManager;
+        this.spectatorService = spectatorService;
+        this.ticTacToeService = ticTacToeService;
+        this.gameExportService = gameExportService;
+        this.exportTimeoutMs = exportTimeoutMs;
+    }
+
+    /**
+     * Lists games in progress on this node that can be watched on {@code /topic/spectate.{gameId}}.
+     *
+     * @param limit the maximum number of games to list, at most 500
+     * @return the games, in no particular order
+     */
+    @GetMapping("/live")
+    public List<GameSummary> liveGames(@RequestParam(defaultValue = "50") int limit) {
+        int max = Math.min(Math.max(limit, 0), MAX_LIVE_GAMES);
+        List<GameSummary> summaries = new ArrayList<>(Math.min(max, 64));
+        for (TicTacToe game : ticTacToeManager.getGames()) {
+            if (summaries.size() >= max) {
+                break;
+            }
+            synchronized (game) {
+                if (game.getGameState() == GameState.PLAYER1_TURN || game.getGameState() == GameState.PLAYER2_TURN) {
+                    summaries.add(new GameSummary(game, spectatorService.isWatched(game.getGameId())));
+                }
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Lists saved games, newest first, a page at a time. Pass the {@code next} cursor of a page as {@code before}
+     * to get the following page; it is null on the last page.
+     *
+     * @param player the player whose games to list, all games if not given
+     * @param before the cursor of the previous page, the newest games if not given
+     * @param limit  the maximum number of games on the page, at most 100
+     * @return the page, or 400 if the cursor is malformed
+     */
+    @GetMapping("/history")
+    public ResponseEntity<GameHistoryPage> history(@RequestParam(required = false) String player,
+                                                   @RequestParam(required = false) String before,
+                                                   @RequestParam(defaultValue = "20") int limit) {
+        int max = Math.min(Math.max(limit, 1), MAX_HISTORY_GAMES);
+        try {
+            return ResponseEntity.ok(ticTacToeService.getHistory(player, before, max));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Downloads all finished games as NDJSON, one game per line, see {@link GameExportService}.
+     * The response is written while the games are read, so it starts right away and is never held in memory.
+     * Exports of millions of games take longer than the default timeout of asynchronous requests, so the export
+     * has a timeout of its own.
+     *
+     * @return the games, or 429 if another export is running
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(HttpServletRequest request) {
+        if (!exportPermit.tryAcquire()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+        request.setAttribute(WebMvcConfig.ASYNC_TIMEOUT, exportTimeoutMs);
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"games.ndjson\"")
+                .body(out -> {
+                    try {
+                        gameExportService.export(out);
+                    } finally {
+                        exportPermit.release();
+                    }
+                });
+    }
+
+    /**
+     * Rebuilds a game from the move journal.
+     *
+     * @param gameId the ID of the game
+     * @param upTo   the sequence number of the last move to replay, all moves if not given
+     * @return the state of the game after the replayed moves, or 404 if the journal has no moves of the game
+     */
+    @GetMapping("/{gameId}/replay")
+    public ResponseEntity<TicTacToeMessage> replay(@PathVariable String gameId,
+                                                   @RequestParam(required = false) Long upTo) {
+        TicTacToe game = moveJournalService.replay(gameId, upTo);
+        if (game == null) {
+            return ResponseEntity.notFound().build();
+        }
+        TicTacToeMessage message = new TicTacToeMessage(game);
+        message.setType("game.replay");
+        return ResponseEntity.ok(message);
+    }
+}
@@ -1,43 +1,95 @@
 package com.example.tictactoe.controller;
 
+import com.example.tictactoe.bot.BotPlayer;
+import com.example.tictactoe.cluster.ClusterService;
+import com.example.tictactoe.cluster.GameEventPublisher;
 import com.example.tictactoe.enumeration.GameState;
+import com.example.tictactoe.enumeration.GameVariant;
+import com.example.tictactoe.model.BitBoard;
+import com.example.tictactoe.model.GameMove;
 import com.example.tictactoe.model.TicTacToe;
 import com.example.tictactoe.model.dto.JoinMessage;
+import com.example.tictactoe.model.dto.MoveMessage;
 import com.example.tictactoe.model.dto.PlayerMessage;
 import com.example.tictactoe.model.dto.TicTacToeMessage;
 import com.example.tictactoe.manager.TicTacToeManager;
-import com.example.tictactoe.repository.TicTacToeRepository;
+import com.example.tictactoe.service.GameArchiveService;
+import com.example.tictactoe.service.GameMetrics;
+import com.example.tictactoe.service.GameSweeper;
+import com.example.tictactoe.service.GameTimerService;
+import com.example.tictactoe.service.LeaderboardService;
+import com.example.tictactoe.service.LiveGameJournal;
+import com.example.tictactoe.service.MoveJournalService;
+import com.example.tictactoe.service.SpectatorService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 
 import java.util.Date;
 import java.util.Objects;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.function.Function;
+
+import static com.example.tictactoe.model.TicTacToe.MOVE_TIME_LIMIT_MS;
 
 
 @Controller
 public class MessageController {
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private GameEventPublisher gameEventPublisher;
+
+    @Autowired
+    private ClusterService clusterService;
+
+    @Autowired
+    private GameArchiveService gameArchiveService;
+
+    @Autowired
+    private GameTimerService gameTimerService;
+
+    @Autowired
+    private MoveJournalService moveJournalService;
+
+    @Autowired
+    private GameMetrics gameMetrics;
 
     @Autowired
-    private TicTacToeRepository ticTacToeRepository;
+    private TicTacToeManager ticTacToeManager;
 
-    private final TicTacToeManager ticTacToeManager = new TicTacToeManager();
+    @Autowired
+    private BotPlayer botPlayer;
+
+    @Autowired
+    private SpectatorService spectatorService;
+
+    @Autowired
+    private LiveGameJournal liveGameJournal;
+
+    @Autowired
+    private GameSweeper gameSweeper;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    /**
+     * Set once the application is shutting down, when disconnects no longer mean that players left.
+     */
+    private volatile boolean shuttingDown;
 
     /**
      * Handles a request from a client to join a Tic-Tac-Toe game.
      * If a game is available and the player is successfully added to the game,
      * the current state of the game is sent to all subscribers of the game's topic.
+     * Players are matched with players who asked for the same variant and are near in rating. A player who asks
+     * for the bot plays against it if nobody suitable is waiting for a game of a variant the bot can play.
      *
      * @param message the message from the client containing the player's name
      * @return the current state of the game, or an error message if the player was unable to join
@@ -45,7 +97,11 @@ public class MessageController {
     @MessageMapping("/game.join")
     @SendTo("/topic/game.state")
     public Object joinGame(@Payload JoinMessage message, SimpMessageHeaderAccessor headerAccessor) {
-        TicTacToe game = ticTacToeManager.joinGame(message.getPlayer());
+        GameVariant variant = GameVariant.orDefault(message.getVariant());
+        String bot = message.isBot() && variant.isBotSupported() ? BotPlayer.NAME : null;
+        TicTacToe game = BotPlayer.isBot(message.getPlayer()) ? null
+                : ticTacToeManager.joinGame(message.getPlayer(), variant,
+                leaderboardService.getRating(message.getPlayer()), bot);
         if (game == null) {
             TicTacToeMessage errorMessage = new TicTacToeMessage();
             errorMessage.setType("error");
@@ -55,7 +111,15 @@ public class MessageController {
         Objects.requireNonNull(headerAccessor.getSessionAttributes()).put("gameId", game.getGameId());
         headerAccessor.getSessionAttributes().put("player", message.getPlayer());
 
-        TicTacToeMessage gameMessage = gameToMessage(game);
+        TicTacToeMessage gameMessage;
+        synchronized (game) {
+            if (game.getPlayer2() != null) {
+                startGameTimers(game);
+            }
+            liveGameJournal.record(game);
+            gameMessage = new TicTacToeMessage(game);
+        }
+        spectatorService.changed(game.getGameId());
         gameMessage.setType("game.joined");
         return gameMessage;
     }
@@ -65,53 +129,197 @@ public class MessageController {
      * If the player is successfully removed from the game, a message is sent to subscribers
      * of the game's topic indicating that the player has left.
      *
-     * @param message the message from the client containing the player's name
+     * @param message       the message from the client containing the player's name
+     * @param forwardedFrom the node that forwarded the message, or null if a client of this node sent it
      */
     @MessageMapping("/game.leave")
-    public void leaveGame(@Payload PlayerMessage message) {
+    public void leaveGame(@Payload PlayerMessage message,
+                          @Header(name = ClusterService.FORWARDED_FROM, required = false) String forwardedFrom) {
+        TicTacToe current = ticTacToeManager.getGameByPlayer(message.getPlayer());
+        if (current == null && forwardedFrom == null
+                && clusterService.forwardToOwner(message.getGameId(), "/app/game.leave", message)) {
+            return;
+        }
         TicTacToe game = ticTacToeManager.leaveGame(message.getPlayer());
+        if (current != null) {
+            // The game is either gone or waiting for a new opponent, its clocks restart on the next join
+            gameTimerService.cancel(current.getGameId());
+            if (game == null) {
+                synchronized (current) {
+                    spectatorService.finished(current);
+                }
+                gameEventPublisher.forget(current.getGameId());
+                liveGameJournal.remove(current.getGameId());
+            }
+        }
         if (game != null) {
-            TicTacToeMessage gameMessage = gameToMessage(game);
-            gameMessage.setType("game.left");
-            messagingTemplate.convertAndSend("/topic/game." + game.getGameId(), gameMessage);
+            synchronized (game) {
+                liveGameJournal.record(game);
+                gameEventPublisher.publishSnapshot(game, "game.left");
+            }
+            spectatorService.changed(game.getGameId());
+        }
+    }
+
+    /**
+     * Handles a request from a spectator to follow a game, sent when it subscribes to
+     * {@code /topic/spectate.{gameId}} and again before its lease runs out.
+     *
+     * @param message       the message from the client containing the game ID
+     * @param forwardedFrom the node that forwarded the message, or null if a client of this node sent it
+     */
+    @MessageMapping("/game.spectate")
+    public void spectateGame(@Payload TicTacToeMessage message,
+                             @Header(name = ClusterService.FORWARDED_FROM, required = false) String forwardedFrom) {
+        if (ticTacToeManager.getGame(message.getGameId()) != null) {
+            spectatorService.watch(message.getGameId());
+        } else if (forwardedFrom == null) {
+            clusterService.forwardToOwner(message.getGameId(), "/app/game.spectate", message);
+        }
+    }
+
+    /**
+     * Handles a request from a client for the full state of a game, e.g. after it missed a move message.
+     * The snapshot is sent to all subscribers of the game's topic, who ignore it if they are up to date, so each
+     * client session may only ask a few times per second, see {@link com.example.tictactoe.service.MoveRateLimiter}.
+     *
+     * @param message       the message from the client containing the game ID
+     * @param forwardedFrom the node that forwarded the message, or null if a client of this node sent it
+     */
+    @MessageMapping("/game.sync")
+    public void syncGame(@Payload TicTacToeMessage message,
+                         @Header(name = ClusterService.FORWARDED_FROM, required = false) String forwardedFrom) {
+        TicTacToe game = ticTacToeManager.getGame(message.getGameId());
+        if (game == null && forwardedFrom == null) {
+            clusterService.forwardToOwner(message.getGameId(), "/app/game.sync", message);
+        } else if (game != null) {
+            synchronized (game) {
+                gameEventPublisher.publishSnapshot(game, "game.sync");
+            }
         }
     }
 
     /**
      * Handles a request from a client to make a move in a Tic-Tac-Toe game.
-     * If the move is valid, the game state is updated and sent to all subscribers of the game's topic.
+     * If the move is valid, the game state is updated and the move is sent to all subscribers of the game's topic.
      * If the game is over, a message is sent indicating the result of the game.
      *
-     * @param message the message from the client containing the player's name, game ID, and move
+     * @param message       the message from the client containing the player's name, game ID, and move
+     * @param forwardedFrom the node that forwarded the message, or null if a client of this node sent it
      */
     @MessageMapping("/game.move")
-    public void makeMove(@Payload TicTacToeMessage message) {
-        String player = message.getSender();
+    public void makeMove(@Payload TicTacToeMessage message,
+                         @Header(name = ClusterService.FORWARDED_FROM, required = false) String forwardedFrom) {
+        long start = System.nanoTime();
         String gameId = message.getGameId();
-        int move = message.getMove();
         TicTacToe game = ticTacToeManager.getGame(gameId);
 
-        if (game == null || game.isGameOver()) {
-            if (game == null) {
-                TicTacToeMessage errorMessage = new TicTacToeMessage();
-                errorMessage.setType("error");
-                errorMessage.setContent("Game not found.");
-                this.messagingTemplate.convertAndSend("/topic/game." + gameId, errorMessage);
-            } else if (game.isGameOver()) {
-                TicTacToeMessage errorMessage = new TicTacToeMessage();
-                errorMessage.setType("error");
-                errorMessage.setContent("Game is already over.");
-                this.messagingTemplate.convertAndSend("/topic/game." + gameId, errorMessage);
-            }
+        // Games live on their owner node, which handles the move and publishes the result to all nodes
+        if (game == null && forwardedFrom == null && clusterService.forwardToOwner(gameId, "/app/game.move", message)) {
+            return;
+        }
+        if (game == null) {
+            TicTacToeMessage errorMessage = new TicTacToeMessage();
+            errorMessage.setType("error");
+            errorMessage.setContent("Game not found.");
+            gameEventPublisher.publish("/topic/game." + gameId, errorMessage);
+            gameMetrics.recordMove(System.nanoTime() - start, false);
+            return;
+        }
+
+        if (BotPlayer.isBot(message.getSender())) {
+            // Only the server moves for the bot
             return;
         }
+        if (!isPlayable(game, message.getSender(), message.getMove())) {
+            gameMetrics.recordOutOfTurn();
+            gameMetrics.recordMove(System.nanoTime() - start, false);
+            return;
+        }
+        applyMove(game, message.getSender(), message.getMove(), start);
+    }
+
+    /**
+     * Checks without taking the game's lock whether a move could change the game, so moves out of turn, repeated
+     * moves whose first copy was already played, and moves off the board are dropped without waiting for the lock
+     * or broadcasting an error. Moves that pass are checked again under the lock.
+     * Moves in a game that is waiting or over pass, so the sender is told about it.
+     */
+    private boolean isPlayable(TicTacToe game, String player, int move) {
+        if (game.getGameState() == GameState.WAITING_FOR_PLAYER || game.isGameOver()) {
+            return true;
+        }
+        return Objects.equals(game.getTurn(), player) && move >= 0 && move < game.getVariant().getCellCount();
+    }
+
+    /**
+     * Plays the move chosen by the bot, unless the game has ended or moved on in the meantime.
+     *
+     * @param sequence the sequence number of the game when the bot was asked to move
+     */
+    private void playBotMove(String gameId, long sequence, int move) {
+        TicTacToe game = ticTacToeManager.getGame(gameId);
+        if (game != null) {
+            applyMove(game, BotPlayer.NAME, move, sequence, System.nanoTime());
+        }
+    }
+
+    /**
+     * Applies a move and queues its journal entry, and the game if the move finished it.
+     */
+    private void applyMove(TicTacToe game, String player, int move, long start) {
+        applyMove(game, player, move, -1, start);
+    }
+
+    /**
+     * Applies a move computed for the given state of the game and queues its journal entry, and the game if the
+     * move finished it. The move is dropped if the game changed since.
+     *
+     * @param sequence the sequence number of the game the move was computed for, or -1 to play it in any state
+     */
+    private void applyMove(TicTacToe game, String player, int move, long sequence, long start) {
+        // Moves, timeouts and disconnects of one game are serialized on the game object
+        GameMove journalEntry = null;
+        TicTacToe finishedGame = null;
+        synchronized (game) {
+            if (sequence < 0 || game.getSequence() == sequence) {
+                journalEntry = makeMove(game, player, move);
+            }
+            if (journalEntry != null && game.isGameOver()) {
+                finishedGame = finishGame(game);
+            }
+        }
+        // Queued after releasing the lock: adding may block when a queue is full, which would pin a virtual thread
+        if (journalEntry != null) {
+            moveJournalService.record(journalEntry);
+        }
+        if (finishedGame != null) {
+            gameArchiveService.archive(finishedGame);
+        }
+        gameMetrics.recordMove(System.nanoTime() - start, journalEntry != null);
+    }
+
+    /**
+     * Applies a move to a game whose lock is held by the caller.
+     *
+     * @return the journal entry of the move, or null if no stone was placed
+     */
+    private GameMove makeMove(TicTacToe game, String player, int move) {
+        String gameId = game.getGameId();
+        if (game.isGameOver()) {
+            TicTacToeMessage errorMessage = new TicTacToeMessage();
+            errorMessage.setType("error");
+            errorMessage.setContent("Game is already over.");
+            gameEventPublisher.publish("/topic/game." + gameId, errorMessage);
+            return null;
+        }
 
         if (game.getGameState().equals(GameState.WAITING_FOR_PLAYER)) {
             TicTacToeMessage errorMessage = new TicTacToeMessage();
             errorMessage.setType("error");
             errorMessage.setContent("Game is waiting for another player to join.");
-            this.messagingTemplate.convertAndSend("/topic/game." + gameId, errorMessage);
-            return;
+            gameEventPublisher.publish("/topic/game." + gameId, errorMessage);
+            return null;
         }
 
         if (game.getTurn().equals(player)) {
@@ -120,65 +328,233 @@ public class MessageController {
                 TicTacToeMessage errorMessage = new TicTacToeMessage();
                 errorMessage.setType("error");
                 errorMessage.setContent("Time has run out for your move.");
-                this.messagingTemplate.convertAndSendToUser(player, "/queue/errors", errorMessage);
-                return;
+                gameEventPublisher.publishToUser(player, "/queue/errors", errorMessage);
+                return null;
             }
 
+            int stones = game.getBoard().getStoneCount();
             game.makeMove(player, move);
+            if (game.getBoard().getStoneCount() == stones) {
+                // Taken or invalid cell, nothing changed and the move clock keeps running
+                return null;
+            }
+            GameMove journalEntry = new GameMove(game, player, move);
+            if (!BotPlayer.isBot(player)) {
+                // The bot keeps moving in a game its opponent abandoned, only the player's moves keep it alive
+                game.touch();
+            }
 
-            TicTacToeMessage gameStateMessage = new TicTacToeMessage(game);
-            gameStateMessage.setType("game.move");
-            this.messagingTemplate.convertAndSend("/topic/game." + gameId, gameStateMessage);
+            gameEventPublisher.publish("/topic/game." + gameId, new MoveMessage(game, move));
+            spectatorService.changed(gameId);
 
-            if (game.isGameOver()) {
-                saveGameToDatabase(game);
-                TicTacToeMessage gameOverMessage = gameToMessage(game);
-                gameOverMessage.setType("game.gameOver");
-                this.messagingTemplate.convertAndSend("/topic/game." + gameId, gameOverMessage);
-                ticTacToeManager.removeGame(gameId);
-            } else {
+            if (!game.isGameOver()) {
                 // Start the timer for the next player's move
                 game.startMoveTimer();
 
                 // Schedule a task to check for timeout and change turn if necessary
                 scheduleTimeoutCheck(gameId, game.getTurn());
+                liveGameJournal.record(game);
+                requestBotMove(game);
+            }
+            return journalEntry;
+        }
+        return null;
+    }
+
+    /**
+     * Puts the games that were in progress when the application stopped back in play, see {@link LiveGameJournal}.
+     * The game clocks carry on where they were, and the player to move gets a fresh move clock.
+     * Then starts sweeping abandoned games, see {@link #expireGame}.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeRecoveredGames() {
+        for (TicTacToe game : liveGameJournal.takeRecoveredGames()) {
+            ticTacToeManager.restoreGame(game, BotPlayer.isBot(game.getPlayer2()));
+            synchronized (game) {
+                if (game.getPlayer2() != null) {
+                    startGameTimers(game);
+                    requestBotMove(game);
+                }
+            }
+        }
+        gameSweeper.start(this::expireGame);
+    }
+
+    /**
+     * Keeps the games in progress for the next start when the application shuts down. The sessions of all players
+     * are about to close because the server stops, so their disconnects must not forfeit the games or drop them
+     * from the {@link LiveGameJournal}. Every live game is recorded once more, so its game clock stops now.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void suspendGames() {
+        shuttingDown = true;
+        for (TicTacToe game : ticTacToeManager.getGames()) {
+            synchronized (game) {
+                if (ticTacToeManager.getGame(game.getGameId()) == game && !game.isGameOver()) {
+                    liveGameJournal.record(game);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finalizes a game the {@link GameSweeper} found abandoned, unless a player came back in the meantime.
+     * A game nobody joined is dropped after telling its player with a {@code game.expired} snapshot, a game in
+     * progress ends as a tie like at the game time limit and is saved.
+     */
+    private void expireGame(TicTacToe expired) {
+        archive(withGame(expired.getGameId(), game -> {
+            if (!gameSweeper.isExpired(game, System.currentTimeMillis())) {
+                return null;
+            }
+            if (game.getPlayer2() == null) {
+                String gameId = game.getGameId();
+                gameEventPublisher.publishSnapshot(game, "game.expired");
+                gameTimerService.cancel(gameId);
+                ticTacToeManager.removeGame(gameId);
+                spectatorService.finished(game);
+                gameEventPublisher.forget(gameId);
+                liveGameJournal.remove(gameId);
+                return null;
             }
+            if (!game.isGameOver()) {
+                game.endByTimeLimit();
+            }
+            return finishGame(game);
+        }));
+    }
+
+    /**
+     * Starts the game clock and the first move clock once both players are seated.
+     * Does nothing if the clocks of the game are already running.
+     */
+    private void startGameTimers(TicTacToe game) {
+        String gameId = game.getGameId();
+        if (gameTimerService.scheduleGameTimeout(gameId, game.getGameTimeLeftMs(),
+                () -> archive(withGame(gameId, this::checkGameTimeLimit)))) {
+            game.startMoveTimer();
+            scheduleTimeoutCheck(gameId, game.getTurn());
         }
     }
 
     /**
-     * A task to check for timeout after 30 seconds
+     * Schedules a check for timeout after 30 seconds, replacing the pending check of the game.
      */
     private void scheduleTimeoutCheck(String gameId, String currentTurn) {
-        Timer timer = new Timer();
-        timer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                TicTacToe game = ticTacToeManager.getGame(gameId);
-                if (game != null && game.getTurn().equals(currentTurn)) {
-                    // Timeout occurred, change turn and notify clients
-                    game.startMoveTimer();  // Reset the move timer for the new turn
-                    String nextTurn = game.getTurn().equals(game.getPlayer1()) ? game.getPlayer2() : game.getPlayer1();
-                    game.setTurn(nextTurn);
-
-                    TicTacToeMessage timeoutMessage = new TicTacToeMessage(game);
-                    timeoutMessage.setType("game.timeout");
-                    messagingTemplate.convertAndSend("/topic/game." + gameId, timeoutMessage);
-
-                    // Continue the game loop by scheduling the next timeout check
-                    scheduleTimeoutCheck(gameId, nextTurn);
-
-                    // Update the game state after changing the turn
-                    game.updateGameState();
+        gameTimerService.scheduleMoveTimeout(gameId, MOVE_TIME_LIMIT_MS, () -> {
+            GameMove journalEntry = withGame(gameId, game -> checkTimeout(game, currentTurn));
+            if (journalEntry != null) {
+                moveJournalService.record(journalEntry);
+            }
+        });
+    }
+
+    /**
+     * Runs a timer task on the game with the given ID, holding the game's lock, if the game still exists.
+     * Like {@link #applyMove}, the task returns what has to be queued, and the caller queues it after the lock
+     * is released.
+     *
+     * @return the result of the task, or null if the game no longer exists
+     */
+    private <T> T withGame(String gameId, Function<TicTacToe, T> task) {
+        TicTacToe game = ticTacToeManager.getGame(gameId);
+        if (game != null) {
+            synchronized (game) {
+                if (ticTacToeManager.getGame(gameId) == game) {
+                    return task.apply(game);
                 }
             }
-        }, 30 * 1000);  // 30 seconds
+        }
+        return null;
+    }
+
+    /**
+     * Queues a finished game for saving, if there is one.
+     */
+    private void archive(TicTacToe finishedGame) {
+        if (finishedGame != null) {
+            gameArchiveService.archive(finishedGame);
+        }
+    }
+
+    /**
+     * Ends the game as soon as the game time limit is reached, even if nobody is making moves.
+     *
+     * @return the copy of the game to archive, or null if the game was already over
+     */
+    private TicTacToe checkGameTimeLimit(TicTacToe game) {
+        if (!game.isGameOver()) {
+            game.endByTimeLimit();
+            return finishGame(game);
+        }
+        return null;
+    }
+
+    /**
+     * Passes the turn to the other player if the current player still hasn't moved.
+     *
+     * @return the journal entry of the pass, or null if the player has moved in the meantime
+     */
+    private GameMove checkTimeout(TicTacToe game, String currentTurn) {
+        String gameId = game.getGameId();
+        if (!game.isGameOver() && game.getTurn().equals(currentTurn)) {
+            // Timeout occurred, change turn and notify clients
+            game.startMoveTimer();  // Reset the move timer for the new turn
+            game.passTurn();
+            GameMove journalEntry = new GameMove(game, currentTurn, GameMove.PASS);
+            gameMetrics.recordTimeout();
+            String nextTurn = game.getTurn();
+
+            gameEventPublisher.publishSnapshot(game, "game.timeout");
+            spectatorService.changed(gameId);
+
+            // Continue the game loop by scheduling the next timeout check
+            scheduleTimeoutCheck(gameId, nextTurn);
+
+            // Update the game state after changing the turn
+            game.updateGameState();
+            liveGameJournal.record(game);
+            requestBotMove(game);
+            return journalEntry;
+        }
+        return null;
+    }
+
+    /**
+     * Lets the bot search for its move in the background if it is the bot's turn.
+     * The search runs on a copy of the board, so the game's lock is not held while it runs.
+     */
+    private void requestBotMove(TicTacToe game) {
+        if (ticTacToeManager.isBotGame(game.getGameId()) && BotPlayer.isBot(game.getTurn())) {
+            String gameId = game.getGameId();
+            char mark = BotPlayer.isBot(game.getPlayer1()) ? BitBoard.X : BitBoard.O;
+            long sequence = game.getSequence();
+            botPlayer.requestMove(game.getBoard().copy(), mark, move -> playBotMove(gameId, sequence, move));
+        }
+    }
+
+    /**
+     * Tells the players about the result of a finished game and forgets the game.
+     *
+     * @return the copy of the game to pass to {@link GameArchiveService#archive}
+     */
+    private TicTacToe finishGame(TicTacToe game) {
+        String gameId = game.getGameId();
+        gameTimerService.cancel(gameId);
+        gameMetrics.recordGameOver(game);
+        TicTacToe savedGame = toSavedGame(game);
+        gameEventPublisher.publishSnapshot(game, "game.gameOver");
+        spectatorService.finished(game);
+        gameEventPublisher.forget(gameId);
+        liveGameJournal.remove(gameId);
+        ticTacToeManager.removeGame(gameId);
+        return savedGame;
     }
 
     /**
-     * Saves game to database
+     * Copies the parts of a finished game that are saved to the database.
      */
-    private void saveGameToDatabase(TicTacToe game) {
+    private TicTacToe toSavedGame(TicTacToe game) {
         TicTacToe savedGame = new TicTacToe();
         savedGame.setGameId(game.getGameId());
         savedGame.setBoard(game.getBoard());
@@ -188,8 +564,8 @@ public class MessageController {
         savedGame.setStartTime(game.getStartTime());
         savedGame.setLastMoveTime(new Date());
         savedGame.setGameState(game.getGameState());
-
-        ticTacToeRepository.save(savedGame);
+        savedGame.setVariant(game.getVariant());
+        return savedGame;
     }
 
     /**
@@ -211,6 +587,10 @@ public class MessageController {
      */
     @EventListener
     public void SessionDisconnectEvent(SessionDisconnectEvent event) {
+        if (shuttingDown) {
+            // The server closed the session, the game is restored on the next start, see suspendGames
+            return;
+        }
         StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(event.getMessage());
 
         // Retrieve gameId and player from session attributes, with null checks
@@ -225,7 +605,9 @@ public class MessageController {
             TicTacToe game = ticTacToeManager.getGame(gameId);
 
             if (game != null) {
-                handlePlayerDisconnect(game, player);
+                synchronized (game) {
+                    handlePlayerDisconnect(game, player);
+                }
             }
         }
     }
@@ -234,42 +616,30 @@ public class MessageController {
      * Updates the game state and notifies clients when a player disconnects.
      */
     private void handlePlayerDisconnect(TicTacToe game, String player) {
-        if (game.getPlayer1().equals(player)) {
+        // Drop the game first, while both seats are still known to the manager's player index
+        ticTacToeManager.removeGame(game.getGameId());
+        gameTimerService.cancel(game.getGameId());
+        gameMetrics.recordDisconnect();
+
+        if (player.equals(game.getPlayer1())) {
             game.setPlayer1(null);
             if (game.getPlayer2() != null) {
                 game.setGameState(GameState.PLAYER2_WON);
                 game.setWinner(game.getPlayer2());
-            } else {
-                ticTacToeManager.removeGame(game.getGameId());
+                gameMetrics.recordForfeit();
             }
-        } else if (game.getPlayer2() != null && game.getPlayer2().equals(player)) {
+        } else if (player.equals(game.getPlayer2())) {
             game.setPlayer2(null);
             if (game.getPlayer1() != null) {
                 game.setGameState(GameState.PLAYER1_WON);
                 game.setWinner(game.getPlayer1());
-            } else {
-                ticTacToeManager.removeGame(game.getGameId());
+                gameMetrics.recordForfeit();
             }
         }
 
-        TicTacToeMessage gameMessage = gameToMessage(game);
-        gameMessage.setType("game.gameOver");
-        messagingTemplate.convertAndSend("/topic/game." + game.getGameId(), gameMessage);
-        ticTacToeManager.removeGame(game.getGameId());
-    }
-
-    /**
-     * Converts TicTacToe game object into corresponding TicTacToeMessage to encapsulate the process.
-     */
-    private TicTacToeMessage gameToMessage(TicTacToe game) {
-        TicTacToeMessage message = new TicTacToeMessage();
-        message.setGameId(game.getGameId());
-        message.setPlayer1(game.getPlayer1());
-        message.setPlayer2(game.getPlayer2());
-        message.setBoard(game.getBoard());
-        message.setTurn(game.getTurn());
-        message.setGameState(game.getGameState());
-        message.setWinner(game.getWinner());
-        return message;
+        gameEventPublisher.publishSnapshot(game, "game.gameOver");
+        spectatorService.finished(game);
+        gameEventPublisher.forget(game.getGameId());
+        liveGameJournal.remove(game.getGameId());
     }
 }
@@ -1,19 +1,20 @@
 package com.example.tictactoe.controller;
 
+import com.example.tictactoe.enumeration.GameVariant;
+import com.example.tictactoe.model.PlayerStats;
 import com.example.tictactoe.model.TicTacToe;
-import com.example.tictactoe.repository.TicTacToeRepository;
+import com.example.tictactoe.service.LeaderboardService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
 
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
-import static com.example.tictactoe.model.TicTacToe.BOARD_SIZE;
-
 
 /**
  * Controller class for handling HTTP requests and rendering the Tic-Tac-Toe game.
@@ -21,28 +22,33 @@ import static com.example.tictactoe.model.TicTacToe.BOARD_SIZE;
 @Controller
 @RequestMapping("/")
 public class TicTacToeController {
-    private final TicTacToeRepository ticTacToeRepository;
+    private final LeaderboardService leaderboardService;
 
     @Autowired
-    public TicTacToeController(TicTacToeRepository ticTacToeRepository) {
-        this.ticTacToeRepository = ticTacToeRepository;
+    public TicTacToeController(LeaderboardService leaderboardService) {
+        this.leaderboardService = leaderboardService;
     }
 
     /**
      * Renders the Tic-Tac-Toe game page with an empty board.
+     *
+     * @param variant the variant to play, the default 20x20 board if not given
      */
     @GetMapping
-    public ModelAndView index() {
-        return ticTacToe();
+    public ModelAndView index(@RequestParam(required = false) GameVariant variant) {
+        return ticTacToe(variant);
     }
 
     /**
      * Renders the Tic-Tac-Toe game page with an empty board.
+     *
+     * @param variant the variant to play, the default 20x20 board if not given
      */
     @GetMapping("/index")
-    public ModelAndView ticTacToe() {
+    public ModelAndView ticTacToe(@RequestParam(required = false) GameVariant variant) {
         ModelAndView modelAndView = new ModelAndView("index");
-        String[][] board = new String[BOARD_SIZE][BOARD_SIZE];
+        int size = GameVariant.orDefault(variant).getSize();
+        String[][] board = new String[size][size];
         Arrays.stream(board).forEach(row -> Arrays.fill(row, " "));
         TicTacToe ticTacToe = new TicTacToe("Player1", "Player2");
         ticTacToe.setStartTime(new Date());
@@ -51,11 +57,11 @@ public class TicTacToeController {
     }
 
     /**
-     * Renders the Tic-Tac-Toe leaderboard page with a table that shows game information from database.
+     * Renders the Tic-Tac-Toe leaderboard page with a table that shows the best players and their results.
      */
     @GetMapping("/leaderboard")
     public ModelAndView getLeaderboard() {
-        List<TicTacToe> leaderboard = ticTacToeRepository.findTop10ByOrderByLastMoveTimeAsc();
+        List<PlayerStats> leaderboard = leaderboardService.getLeaderboard();
         ModelAndView modelAndView = new ModelAndView("leaderboard");
         modelAndView.addObject("leaderboard", leaderboard);
         return modelAndView;
@@ -0,0 +1,120 @@
+package com.example.tictactoe.converter;
+
+import com.example.tictactoe.model.BitBoard;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Compact, versioned binary encoding of a {@link BitBoard}.
+ * <p>
+ * Every encoding starts with a format byte and the board size, followed by either
+ * <ul>
+ *     <li>{@link #MOVES}: the number of stones and every stone in the order it was placed, two bytes each,
+ *     with the highest bit set for "O". This allows a finished game to be replayed.</li>
+ *     <li>{@link #PACKED}: two bits per cell (0 empty, 1 "X", 2 "O"), used when the order of the stones is unknown.</li>
+ * </ul>
+ * A 20x20 game of 60 moves takes 124 bytes (168 characters of Base64), instead of more than 1.6 KB of JSON.
+ */
+public final class BoardCodec {
+    public static final byte PACKED = 1;
+    public static final byte MOVES = 2;
+
+    private static final int O_FLAG = 0x8000;
+    private static final int CELL_MASK = 0x7fff;
+
+    private BoardCodec() {
+    }
+
+    /**
+     * Encodes a board, as a move list if its history is known and as packed cells otherwise.
+     */
+    public static byte[] encode(BitBoard board) {
+        return board.isHistoryKnown() ? encodeMoves(board) : encodePacked(board);
+    }
+
+    public static String encodeToString(BitBoard board) {
+        return Base64.getEncoder().encodeToString(encode(board));
+    }
+
+    /**
+     * Decodes a board.
+     *
+     * @throws IllegalArgumentException if the data is truncated or not a valid encoding
+     */
+    public static BitBoard decode(byte[] data) {
+        if (data.length < 2) {
+            throw new IllegalArgumentException("Board data too short: " + data.length + " bytes");
+        }
+        byte format = data[0];
+        int size = data[1] & 0xff;
+        if (size == 0 || size * size > CELL_MASK + 1) {
+            throw new IllegalArgumentException("Invalid board size " + size);
+        }
+        int cells = size * size;
+        BitBoard board = new BitBoard(size);
+        switch (format) {
+            case MOVES -> {
+                ByteBuffer buffer = ByteBuffer.wrap(data, 2, data.length - 2);
+                int count = data.length >= 4 ? buffer.getShort() & 0xffff : -1;
+                if (count < 0 || count > cells || data.length != 4 + count * 2) {
+                    throw new IllegalArgumentException("Board data of " + data.length + " bytes doesn't match "
+                            + "its move count " + count);
+                }
+                for (int i = 0; i < count; i++) {
+                    int move = buffer.getShort() & 0xffff;
+                    int cell = move & CELL_MASK;
+                    if (cell >= cells || !board.place(cell, (move & O_FLAG) != 0 ? BitBoard.O : BitBoard.X)) {
+                        throw new IllegalArgumentException("Invalid move " + i + " to cell " + cell);
+                    }
+                }
+            }
+            case PACKED -> {
+                if (data.length != 2 + (cells + 3) / 4) {
+                    throw new IllegalArgumentException("Packed board of size " + size + " has " + data.length
+                            + " bytes");
+                }
+                for (int cell = 0; cell < cells; cell++) {
+                    int bits = (data[2 + (cell >>> 2)] >>> ((cell & 3) << 1)) & 3;
+                    if (bits == 3) {
+                        throw new IllegalArgumentException("Invalid mark at cell " + cell);
+                    }
+                    if (bits != 0) {
+                        board.place(cell, bits == 1 ? BitBoard.X : BitBoard.O);
+                    }
+                }
+                board.forgetHistory();
+            }
+            default -> throw new IllegalArgumentException("Unknown board format " + format);
+        }
+        return board;
+    }
+
+    public static BitBoard decodeString(String data) {
+        return decode(Base64.getDecoder().decode(data));
+    }
+
+    private static byte[] encodeMoves(BitBoard board) {
+        int count = board.getStoneCount();
+        ByteBuffer buffer = ByteBuffer.allocate(4 + count * 2);
+        buffer.put(MOVES).put((byte) board.getSize()).putShort((short) count);
+        for (int i = 0; i < count; i++) {
+            int move = board.getMove(i);
+            buffer.putShort((short) (board.getMoveMark(i) == BitBoard.O ? move | O_FLAG : move));
+        }
+        return buffer.array();
+    }
+
+    private static byte[] encodePacked(BitBoard board) {
+        byte[] data = new byte[2 + (board.getCellCount() + 3) / 4];
+        data[0] = PACKED;
+        data[1] = (byte) board.getSize();
+        for (int cell = 0; cell < board.getCellCount(); cell++) {
+            char mark = board.get(cell);
+            if (mark != BitBoard.EMPTY) {
+                data[2 + (cell >>> 2)] |= (byte) ((mark == BitBoard.X ? 1 : 2) << ((cell & 3) << 1));
+            }
+        }
+        return data;
+    }
+}
@@ -1,27 +1,37 @@
 package com.example.tictactoe.converter;
 
+import com.example.tictactoe.model.BitBoard;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
 
+/**
+ * Stores a {@link BitBoard} as the Base64 form of its {@link BoardCodec} encoding.
+ * <p>
+ * Rows written before the binary encoding hold the board as a JSON {@code String[][]}. They are recognized by
+ * their leading '[', which never occurs in Base64, and are read as boards without move history.
+ * They are written in the binary encoding the next time they are saved.
+ */
 @Converter
-public class BoardConverter implements AttributeConverter<String[][], String> {
+public class BoardConverter implements AttributeConverter<BitBoard, String> {
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Override
-    public String convertToDatabaseColumn(String[][] attribute) {
-        try {
-            return objectMapper.writeValueAsString(attribute);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Error converting board to JSON", e);
-        }
+    public String convertToDatabaseColumn(BitBoard attribute) {
+        return attribute != null ? BoardCodec.encodeToString(attribute) : null;
     }
 
     @Override
-    public String[][] convertToEntityAttribute(String dbData) {
+    public BitBoard convertToEntityAttribute(String dbData) {
+        if (dbData == null) {
+            return null;
+        }
+        if (!dbData.startsWith("[")) {
+            return BoardCodec.decodeString(dbData);
+        }
         try {
-            return objectMapper.readValue(dbData, String[][].class);
+            return BitBoard.fromArray(objectMapper.readValue(dbData, String[][].class));
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Error converting board from JSON", e);
         }
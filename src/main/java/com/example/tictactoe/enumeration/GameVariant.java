@@ -0,0 +1,104 @@
+package com.example.tictactoe.enumeration;
+
+import com.example.tictactoe.model.BitBoard;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Board size and winning line length of a game. Players are only matched with players of the same variant.
+ * <p>
+ * Boards of at most 16 cells decide wins with a table of all winning stone patterns, precomputed once, so a move
+ * on a 3x3 board costs one array lookup. Larger boards count the four lines through the last stone.
+ */
+@Getter
+public enum GameVariant {
+    CLASSIC(3, 3),
+    GOMOKU_15(15, 5),
+    GOMOKU_19(19, 5),
+    GOMOKU(20, 5);
+
+    private static final int MAX_TABLE_CELLS = 16;
+
+    private final int size;
+    private final int winLength;
+
+    /**
+     * Whether each pattern of one player's stones, as a bit mask of cells, contains a winning line.
+     * Null for boards too large for a table.
+     */
+    @Getter(AccessLevel.NONE)
+    private final boolean[] winTable;
+
+    GameVariant(int size, int winLength) {
+        this.size = size;
+        this.winLength = winLength;
+        this.winTable = size * size <= MAX_TABLE_CELLS ? buildWinTable(size, winLength) : null;
+    }
+
+    /**
+     * Returns the given variant, or the default 20x20 variant if it is null.
+     */
+    public static GameVariant orDefault(GameVariant variant) {
+        return variant != null ? variant : GOMOKU;
+    }
+
+    public int getCellCount() {
+        return size * size;
+    }
+
+    /**
+     * Returns true if the bot can play this variant. Its evaluation is built around lines of five.
+     */
+    public boolean isBotSupported() {
+        return winLength == 5;
+    }
+
+    public BitBoard newBoard() {
+        return new BitBoard(size);
+    }
+
+    /**
+     * Returns true if the stone on the given cell completes a winning line.
+     *
+     * @param board the board
+     * @param cell  the cell of the stone just placed
+     */
+    public boolean isWinningMove(BitBoard board, int cell) {
+        if (winTable != null) {
+            return winTable[(int) board.getSmallMask(board.get(cell))];
+        }
+        return board.countLine(cell, 1, 0, winLength) >= winLength          // vertically
+                || board.countLine(cell, 0, 1, winLength) >= winLength      // horizontally
+                || board.countLine(cell, 1, 1, winLength) >= winLength      // top-left to bottom-right
+                || board.countLine(cell, 1, -1, winLength) >= winLength;    // top-right to bottom-left
+    }
+
+    private static boolean[] buildWinTable(int size, int winLength) {
+        int[][] directions = {{1, 0}, {0, 1}, {1, 1}, {1, -1}};
+        int[] lines = new int[4 * size * size];
+        int lineCount = 0;
+        for (int[] direction : directions) {
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    int endRow = row + (winLength - 1) * direction[0];
+                    int endCol = col + (winLength - 1) * direction[1];
+                    if (endRow < 0 || endRow >= size || endCol < 0 || endCol >= size) {
+                        continue;
+                    }
+                    int line = 0;
+                    for (int k = 0; k < winLength; k++) {
+                        line |= 1 << ((row + k * direction[0]) * size + col + k * direction[1]);
+                    }
+                    lines[lineCount++] = line;
+                }
+            }
+        }
+        boolean[] table = new boolean[1 << (size * size)];
+        for (int mask = 0; mask < table.length; mask++) {
+            for (int i = 0; i < lineCount && !table[mask]; i++) {
+                table[mask] = (mask & lines[i]) == lines[i];
+            }
+        }
+        return table;
+    }
+}
@@ -1,18 +1,39 @@
 package com.example.tictactoe.manager;
 
 import com.example.tictactoe.enumeration.GameState;
+import com.example.tictactoe.enumeration.GameVariant;
+import com.example.tictactoe.model.PlayerStats;
 import com.example.tictactoe.model.TicTacToe;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-
-import static com.example.tictactoe.model.TicTacToe.BOARD_SIZE;
+import java.util.function.Supplier;
 
 /**
  * Manager class for the Tic-Tac-Toe games.
  * Handles adding and removing players from games, and storing and retrieving the current games.
+ * <p>
+ * Players are indexed by the game they sit in, and games waiting for a second player are kept in a
+ * {@link WaitingPool} per variant, bucketed by the waiting player's rating. Joining looks at one entry per bucket
+ * and leaving and looking up a player take constant time, regardless of the number of active or waiting games.
+ * <p>
+ * There is no manager-wide lock. Changes to a game are serialized on the game object itself, joins and leaves
+ * of the same player are serialized on one of a fixed set of lock stripes, and matching is serialized on the pool
+ * of open games of the variant. Locks are taken in that order, stripe, pool, then game, so callers that hold a
+ * game lock may still call {@link #removeGame}.
  */
+@Component
 public class TicTacToeManager {
+    private static final int LOCK_STRIPES = 256;
+    private static final int RATING_BUCKETS = 32;
 
     /**
      * Map of active Tic-Tac-Toe games, with the game ID as the key.
@@ -25,11 +46,78 @@ public class TicTacToeManager {
     protected final Map<String, String> waitingPlayers;
 
     /**
-     * Constructs a new TicTacToeManager.
+     * Map of seated players to the ID of their game.
+     */
+    private final Map<String, String> playerGames;
+
+    /**
+     * IDs of games waiting for a second player, by rating of the waiting player, per variant. Entries are validated
+     * when polled, so games that were filled or removed in the meantime are simply skipped.
+     */
+    private final Map<GameVariant, WaitingPool> openGames;
+
+    /**
+     * IDs of games against the bot.
+     */
+    private final Set<String> botGames;
+
+    /**
+     * Lock stripes serializing joins and leaves per player name.
+     */
+    private final Object[] playerLocks;
+
+    /**
+     * Maximum number of games, beyond which no new games are opened.
+     */
+    private final int maxGames;
+
+    /**
+     * Generates the IDs of new games.
+     */
+    private volatile Supplier<String> gameIdGenerator = () -> UUID.randomUUID().toString();
+
+    /**
+     * Constructs a new TicTacToeManager without a limit on the number of games.
      */
     public TicTacToeManager() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructs a new TicTacToeManager with the default matchmaking settings.
+     *
+     * @param maxGames the maximum number of games; players who would open a new game beyond it can't join
+     */
+    public TicTacToeManager(int maxGames) {
+        this(maxGames, 100, 2, 5000);
+    }
+
+    /**
+     * Constructs a new TicTacToeManager.
+     *
+     * @param maxGames        the maximum number of games; players who would open a new game beyond it can't join
+     * @param bucketWidth     the range of ratings of one bucket of waiting players
+     * @param initialWindow   the number of buckets on either side a waiting player accepts right away
+     * @param widenIntervalMs the time after which a waiting player accepts one more bucket on either side
+     */
+    @Autowired
+    public TicTacToeManager(@Value("${tictactoe.registry.max-games:100000}") int maxGames,
+                            @Value("${tictactoe.matchmaking.bucket-width:100}") int bucketWidth,
+                            @Value("${tictactoe.matchmaking.initial-window:2}") int initialWindow,
+                            @Value("${tictactoe.matchmaking.widen-interval-ms:5000}") long widenIntervalMs) {
+        this.maxGames = maxGames;
         games = new ConcurrentHashMap<>();
         waitingPlayers = new ConcurrentHashMap<>();
+        playerGames = new ConcurrentHashMap<>();
+        openGames = new EnumMap<>(GameVariant.class);
+        for (GameVariant variant : GameVariant.values()) {
+            openGames.put(variant, new WaitingPool(RATING_BUCKETS, bucketWidth, initialWindow, widenIntervalMs));
+        }
+        botGames = ConcurrentHashMap.newKeySet();
+        playerLocks = new Object[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            playerLocks[i] = new Object();
+        }
     }
 
     /**
@@ -38,56 +126,123 @@ public class TicTacToeManager {
      * @param player the name of the player
      * @return the Tic-Tac-Toe game the player was added to
      */
-    public synchronized TicTacToe joinGame(String player) {
-        if (games.values().stream().anyMatch(game -> game.getPlayer1().equals(player) || (game.getPlayer2() != null && game.getPlayer2().equals(player)))) {
-            return games.values().stream().filter(game -> game.getPlayer1().equals(player) || game.getPlayer2().equals(player)).findFirst().get();
-        }
+    public TicTacToe joinGame(String player) {
+        return joinGame(player, GameVariant.GOMOKU, null);
+    }
+
+    /**
+     * Attempts to add a player to an existing Tic-Tac-Toe game of the given variant. If no open games of the
+     * variant are available, the player plays against the given bot, or waits in a new game if there is none.
+     *
+     * @param player  the name of the player
+     * @param variant the variant to play
+     * @param bot     the name of the bot to play against if nobody is waiting, or null to wait for a player
+     * @return the Tic-Tac-Toe game the player was added to, which may be of another variant if the player
+     * already sits in a game, or null if a new game was needed but the maximum number of games is reached
+     */
+    public TicTacToe joinGame(String player, GameVariant variant, String bot) {
+        return joinGame(player, variant, PlayerStats.INITIAL_RATING, bot);
+    }
+
+    /**
+     * Attempts to add a player to an existing Tic-Tac-Toe game of the given variant, whose waiting player is
+     * nearest in rating and accepts the player's rating, see {@link WaitingPool}. If no waiting player accepts
+     * the player, the player plays against the given bot, or waits in a new game if there is none.
+     *
+     * @param player  the name of the player
+     * @param variant the variant to play
+     * @param rating  the Elo rating of the player
+     * @param bot     the name of the bot to play against if nobody is waiting, or null to wait for a player
+     * @return the Tic-Tac-Toe game the player was added to, which may be of another variant if the player
+     * already sits in a game, or null if a new game was needed but the maximum number of games is reached
+     */
+    public TicTacToe joinGame(String player, GameVariant variant, int rating, String bot) {
+        synchronized (lockFor(player)) {
+            TicTacToe current = getGameByPlayer(player);
+            if (current != null) {
+                return current;
+            }
 
-        for (TicTacToe game : games.values()) {
-            if (game.getPlayer1() != null && game.getPlayer2() == null) {
-                game.setPlayer2(player);
-                game.setGameState(GameState.PLAYER1_TURN);
+            // Matching is serialized per variant, otherwise two players could both find no open game and wait
+            // in separate games
+            synchronized (openGames.get(variant)) {
+                TicTacToe game;
+                while ((game = pollOpenGame(variant, rating)) != null) {
+                    synchronized (game) {
+                        if (isOpen(game)) {
+                            waitingPlayers.remove(game.getPlayer1(), game.getGameId());
+                            game.setPlayer2(player);
+                            game.setPlayer2Rating(rating);
+                            game.setGameState(GameState.PLAYER1_TURN);
+                            // The game clock starts with both seats filled, waiting for an opponent is free
+                            game.startGame();
+                            game.touch();
+                            playerGames.put(player, game.getGameId());
+                            return game;
+                        }
+                    }
+                }
+
+                if (games.size() >= maxGames) {
+                    return null;
+                }
+                if (bot != null) {
+                    game = new TicTacToe(gameIdGenerator.get(), player, bot, variant);
+                    game.setPlayer1Rating(rating);
+                    game.setGameState(GameState.PLAYER1_TURN);
+                    botGames.add(game.getGameId());
+                    games.put(game.getGameId(), game);
+                    playerGames.put(player, game.getGameId());
+                    return game;
+                }
+
+                game = new TicTacToe(gameIdGenerator.get(), player, null, variant);
+                game.setPlayer1Rating(rating);
+                games.put(game.getGameId(), game);
+                playerGames.put(player, game.getGameId());
+                waitingPlayers.put(player, game.getGameId());
+                openGames.get(variant).offer(game.getGameId(), rating, System.currentTimeMillis());
                 return game;
             }
         }
-
-        TicTacToe game = new TicTacToe(player, null);
-        games.put(game.getGameId(), game);
-        waitingPlayers.put(player, game.getGameId());
-        return game;
     }
 
     /**
      * Removes a player from their Tic-Tac-Toe game. If the player was the only player in the game,
-     * the game is removed.
+     * or played against the bot, the game is removed.
      *
      * @param player the name of the player
      */
-    public synchronized TicTacToe leaveGame(String player) {
-        String gameId = getGameByPlayer(player) != null ? getGameByPlayer(player).getGameId() : null;
-        if (gameId != null) {
-            waitingPlayers.remove(player);
-            TicTacToe game = games.get(gameId);
-            if (player.equals(game.getPlayer1())) {
-                if (game.getPlayer2() != null) {
-                    game.setPlayer1(game.getPlayer2());
-                    game.setPlayer2(null);
-                    game.setGameState(GameState.WAITING_FOR_PLAYER);
-                    game.setBoard(new String[BOARD_SIZE][BOARD_SIZE]);
-                    waitingPlayers.put(game.getPlayer1(), game.getGameId());
-                } else {
+    public TicTacToe leaveGame(String player) {
+        synchronized (lockFor(player)) {
+            TicTacToe game = getGameByPlayer(player);
+            if (game == null) {
+                return null;
+            }
+            synchronized (game) {
+                String gameId = game.getGameId();
+                if (games.get(gameId) != game || !playerGames.remove(player, gameId)) {
+                    return null;
+                }
+                waitingPlayers.remove(player, gameId);
+                if (botGames.remove(gameId)) {
                     games.remove(gameId);
                     return null;
                 }
-            } else if (player.equals(game.getPlayer2())) {
-                game.setPlayer2(null);
-                game.setGameState(GameState.WAITING_FOR_PLAYER);
-                game.setBoard(new String[BOARD_SIZE][BOARD_SIZE]);
-                waitingPlayers.put(game.getPlayer1(), game.getGameId());
+                if (player.equals(game.getPlayer1())) {
+                    if (game.getPlayer2() == null) {
+                        games.remove(gameId);
+                        return null;
+                    }
+                    game.setPlayer1(game.getPlayer2());
+                    game.setPlayer1Rating(game.getPlayer2Rating());
+                    reopenGame(game);
+                } else if (player.equals(game.getPlayer2())) {
+                    reopenGame(game);
+                }
+                return game;
             }
-            return game;
         }
-        return null;
     }
 
     /**
@@ -107,8 +262,53 @@ public class TicTacToeManager {
      * @return the Tic-Tac-Toe game the given player is in, or null if the player is not in a game
      */
     public TicTacToe getGameByPlayer(String player) {
-        return games.values().stream().filter(game -> game.getPlayer1().equals(player) || (game.getPlayer2() != null &&
-                game.getPlayer2().equals(player))).findFirst().orElse(null);
+        String gameId = playerGames.get(player);
+        return gameId != null ? games.get(gameId) : null;
+    }
+
+    /**
+     * Returns a live, unmodifiable view of all games, in no particular order.
+     * Read the state of a game while holding its lock.
+     */
+    public Collection<TicTacToe> getGames() {
+        return Collections.unmodifiableCollection(games.values());
+    }
+
+    /**
+     * Returns true if the game with the given ID is played against the bot.
+     */
+    public boolean isBotGame(String gameId) {
+        return botGames.contains(gameId);
+    }
+
+    /**
+     * Sets how the IDs of new games are generated, e.g. so that a node of a cluster only creates games it owns.
+     *
+     * @param gameIdGenerator returns a new unique game ID on every call
+     */
+    public void setGameIdGenerator(Supplier<String> gameIdGenerator) {
+        this.gameIdGenerator = gameIdGenerator;
+    }
+
+    /**
+     * Returns the number of games in progress or waiting for a second player.
+     */
+    public int getActiveGameCount() {
+        return games.size();
+    }
+
+    /**
+     * Returns the maximum number of games.
+     */
+    public int getMaxGames() {
+        return maxGames;
+    }
+
+    /**
+     * Returns the number of games waiting for a second player.
+     */
+    public int getWaitingGameCount() {
+        return waitingPlayers.size();
     }
 
     /**
@@ -117,6 +317,93 @@ public class TicTacToeManager {
      * @param gameId the ID of the game to remove
      */
     public void removeGame(String gameId) {
-        games.remove(gameId);
+        TicTacToe game = games.get(gameId);
+        if (game == null) {
+            return;
+        }
+        synchronized (game) {
+            if (games.remove(gameId, game)) {
+                botGames.remove(gameId);
+                unseat(game.getPlayer1(), gameId);
+                unseat(game.getPlayer2(), gameId);
+            }
+        }
+    }
+
+    /**
+     * Adds a game that was in progress before a restart, seating its players again. A game without a second
+     * player is put back in the queue of open games.
+     *
+     * @param game    the restored game
+     * @param botGame true if player 2 is the bot, which is not seated
+     */
+    public void restoreGame(TicTacToe game, boolean botGame) {
+        String gameId = game.getGameId();
+        if (games.putIfAbsent(gameId, game) != null) {
+            return;
+        }
+        game.touch();
+        playerGames.put(game.getPlayer1(), gameId);
+        if (botGame) {
+            botGames.add(gameId);
+        } else if (game.getPlayer2() != null) {
+            playerGames.put(game.getPlayer2(), gameId);
+        } else {
+            waitingPlayers.put(game.getPlayer1(), gameId);
+            openGames.get(game.getVariant()).offer(gameId, game.getPlayer1Rating(), System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Puts a game whose second seat was just vacated back in the queue of open games,
+     * with a fresh board and the remaining player to move first.
+     */
+    private void reopenGame(TicTacToe game) {
+        game.setPlayer2(null);
+        game.setTurn(game.getPlayer1());
+        game.setGameState(GameState.WAITING_FOR_PLAYER);
+        game.resetBoard();
+        game.touch();
+        waitingPlayers.put(game.getPlayer1(), game.getGameId());
+        openGames.get(game.getVariant()).offer(game.getGameId(), game.getPlayer1Rating(), System.currentTimeMillis());
+    }
+
+    /**
+     * Takes the game of the variant that still looks open and whose waiting player is nearest in rating and
+     * accepts the given rating off its pool. The caller must hold the pool's lock, and re-check {@link #isOpen}
+     * while holding the game's lock before taking the seat.
+     *
+     * @return the open game, or null if there is none
+     */
+    private TicTacToe pollOpenGame(GameVariant variant, int rating) {
+        WaitingPool pool = openGames.get(variant);
+        String gameId;
+        while ((gameId = pool.poll(rating, System.currentTimeMillis(), this::looksOpen)) != null) {
+            TicTacToe game = games.get(gameId);
+            if (game != null) {
+                return game;
+            }
+        }
+        return null;
+    }
+
+    private boolean looksOpen(String gameId) {
+        TicTacToe game = games.get(gameId);
+        return game != null && game.getPlayer2() == null;
+    }
+
+    private boolean isOpen(TicTacToe game) {
+        return games.get(game.getGameId()) == game && game.getPlayer1() != null && game.getPlayer2() == null;
+    }
+
+    private Object lockFor(String player) {
+        return playerLocks[(player.hashCode() & Integer.MAX_VALUE) % LOCK_STRIPES];
+    }
+
+    private void unseat(String player, String gameId) {
+        if (player != null) {
+            playerGames.remove(player, gameId);
+            waitingPlayers.remove(player, gameId);
+        }
     }
 }
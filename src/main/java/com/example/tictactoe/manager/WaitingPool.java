@@ -0,0 +1,107 @@
+package com.example.tictactoe.manager;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
+
+/**
+ * Games of one variant waiting for a second player, in buckets by the rating of the waiting player.
+ * <p>
+ * Each bucket is a FIFO queue, so its head has waited longest. A waiting player accepts opponents whose bucket is
+ * at most a window of buckets away, and the window widens the longer the player waits. Finding an opponent
+ * therefore only looks at the head of each bucket, nearest buckets first: if the head of a bucket does not accept
+ * the joining player, nobody behind it does. The cost depends on the number of buckets, not of waiting players.
+ * <p>
+ * Entries are not removed when their game is filled or removed, the caller skips them when they come up.
+ * Adding is thread-safe; polling must be serialized by the caller.
+ */
+class WaitingPool {
+    private final Queue<Entry>[] buckets;
+    private final int bucketWidth;
+    private final int initialWindow;
+    private final long widenIntervalMs;
+
+    /**
+     * A waiting game.
+     *
+     * @param gameId the ID of the game
+     * @param since  the time the game started waiting, in milliseconds since the epoch
+     */
+    record Entry(String gameId, long since) {
+    }
+
+    @SuppressWarnings("unchecked")
+    WaitingPool(int bucketCount, int bucketWidth, int initialWindow, long widenIntervalMs) {
+        this.buckets = new Queue[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.bucketWidth = bucketWidth;
+        this.initialWindow = initialWindow;
+        this.widenIntervalMs = widenIntervalMs;
+    }
+
+    /**
+     * Adds a waiting game.
+     *
+     * @param gameId the ID of the game
+     * @param rating the rating of the waiting player
+     * @param now    the current time in milliseconds since the epoch
+     */
+    void offer(String gameId, int rating, long now) {
+        buckets[bucketOf(rating)].offer(new Entry(gameId, now));
+    }
+
+    /**
+     * Takes the waiting game nearest in rating whose player accepts a player with the given rating.
+     *
+     * @param rating the rating of the joining player
+     * @param now    the current time in milliseconds since the epoch
+     * @param live   tells whether an entry's game is still waiting; entries that aren't are dropped
+     * @return the ID of the game, or null if no waiting player accepts the joining player
+     */
+    String poll(int rating, long now, Predicate<String> live) {
+        int bucket = bucketOf(rating);
+        for (int distance = 0; distance < buckets.length; distance++) {
+            String gameId = pollBucket(bucket - distance, distance, now, live);
+            if (gameId == null && distance > 0) {
+                gameId = pollBucket(bucket + distance, distance, now, live);
+            }
+            if (gameId != null) {
+                return gameId;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of buckets a player who started waiting at the given time accepts on either side.
+     */
+    int window(long since, long now) {
+        long widened = widenIntervalMs > 0 ? (now - since) / widenIntervalMs : buckets.length;
+        return (int) Math.min(buckets.length, initialWindow + widened);
+    }
+
+    private String pollBucket(int bucket, int distance, long now, Predicate<String> live) {
+        if (bucket < 0 || bucket >= buckets.length) {
+            return null;
+        }
+        Queue<Entry> queue = buckets[bucket];
+        Entry entry;
+        while ((entry = queue.peek()) != null) {
+            if (!live.test(entry.gameId())) {
+                queue.poll();
+            } else if (window(entry.since(), now) >= distance) {
+                queue.poll();
+                return entry.gameId();
+            } else {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private int bucketOf(int rating) {
+        return Math.max(0, Math.min(buckets.length - 1, rating / bucketWidth));
+    }
+}
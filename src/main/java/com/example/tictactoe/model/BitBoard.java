@@ -0,0 +1,251 @@
+package com.example.tictactoe.model;
+
+import java.util.Arrays;
+
+/**
+ * Compact square game board backed by two bitsets, one per mark.
+ * <p>
+ * A 20x20 board takes two arrays of seven longs instead of 400 String references.
+ * Cells are addressed by index {@code row * size + col}, like the moves sent by the client.
+ * <p>
+ * The board also remembers the order in which stones were placed, so a game can be replayed.
+ * Boards rebuilt from a plain snapshot, like {@link #fromArray(String[][])}, have no such history.
+ */
+public class BitBoard {
+    public static final char EMPTY = ' ';
+    public static final char X = 'X';
+    public static final char O = 'O';
+
+    private static final int O_FLAG = 0x8000;
+    private static final int CELL_MASK = 0x7fff;
+
+    private final int size;
+    private final long[] xs;
+    private final long[] os;
+    private int stoneCount;
+    private short[] moves;
+    private boolean historyKnown = true;
+
+    /**
+     * Creates an empty board.
+     *
+     * @param size the number of rows and columns
+     */
+    public BitBoard(int size) {
+        this.size = size;
+        int words = (size * size + 63) >>> 6;
+        this.xs = new long[words];
+        this.os = new long[words];
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCellCount() {
+        return size * size;
+    }
+
+    public int getStoneCount() {
+        return stoneCount;
+    }
+
+    public boolean isFull() {
+        return stoneCount == size * size;
+    }
+
+    /**
+     * Returns the cells holding the given mark as a bit mask, cell 0 being the lowest bit.
+     * Only meaningful for boards of at most 64 cells.
+     */
+    public long getSmallMask(char mark) {
+        return mark == X ? xs[0] : os[0];
+    }
+
+    public boolean isEmpty(int cell) {
+        return !isSet(xs, cell) && !isSet(os, cell);
+    }
+
+    /**
+     * Returns the mark at the given cell: {@link #X}, {@link #O} or {@link #EMPTY}.
+     */
+    public char get(int cell) {
+        if (isSet(xs, cell)) {
+            return X;
+        }
+        return isSet(os, cell) ? O : EMPTY;
+    }
+
+    public char get(int row, int col) {
+        return get(row * size + col);
+    }
+
+    /**
+     * Places a mark on an empty cell.
+     *
+     * @param cell the index of the cell
+     * @param mark {@link #X} or {@link #O}
+     * @return true if the mark was placed, false if the cell was already taken
+     */
+    public boolean place(int cell, char mark) {
+        if (!isEmpty(cell)) {
+            return false;
+        }
+        long[] bits = mark == X ? xs : os;
+        bits[cell >>> 6] |= 1L << cell;
+        recordMove(cell, mark);
+        stoneCount++;
+        return true;
+    }
+
+    /**
+     * Takes back the stone placed last, restoring the board to the state before that move.
+     *
+     * @return the cell the stone was taken from
+     * @throws IllegalStateException if the board is empty
+     */
+    public int undoLastMove() {
+        if (stoneCount == 0) {
+            throw new IllegalStateException("No move to undo");
+        }
+        int cell = getMove(stoneCount - 1);
+        long[] bits = getMoveMark(stoneCount - 1) == X ? xs : os;
+        bits[cell >>> 6] &= ~(1L << cell);
+        stoneCount--;
+        return cell;
+    }
+
+    private void recordMove(int cell, char mark) {
+        if (moves == null) {
+            moves = new short[Math.min(16, size * size)];
+        } else if (stoneCount == moves.length) {
+            moves = Arrays.copyOf(moves, Math.min(moves.length * 2, size * size));
+        }
+        moves[stoneCount] = (short) (mark == O ? cell | O_FLAG : cell);
+    }
+
+    /**
+     * Returns true if the order of all stones on the board is known, see {@link #getMove(int)}.
+     */
+    public boolean isHistoryKnown() {
+        return historyKnown;
+    }
+
+    /**
+     * Marks the order of the stones as unknown, for boards rebuilt from a snapshot.
+     */
+    public void forgetHistory() {
+        historyKnown = false;
+    }
+
+    /**
+     * Returns the cell of the n-th stone placed on the board.
+     *
+     * @param index the number of the move, starting at 0
+     */
+    public int getMove(int index) {
+        return moves[index] & CELL_MASK;
+    }
+
+    /**
+     * Returns the mark of the n-th stone placed on the board.
+     *
+     * @param index the number of the move, starting at 0
+     */
+    public char getMoveMark(int index) {
+        return (moves[index] & O_FLAG) != 0 ? O : X;
+    }
+
+    /**
+     * Counts the stones of the same mark as the given cell on the line through it,
+     * looking at most {@code limit - 1} cells in each direction.
+     *
+     * @param cell          the index of an occupied cell
+     * @param rowIncrement  the row step of the line
+     * @param colIncrement  the column step of the line
+     * @param limit         the line length at which counting can stop
+     * @return the number of connected stones, including the given cell
+     */
+    public int countLine(int cell, int rowIncrement, int colIncrement, int limit) {
+        long[] bits = isSet(xs, cell) ? xs : os;
+        int row = cell / size;
+        int col = cell % size;
+        return 1 + countDirection(bits, row, col, rowIncrement, colIncrement, limit - 1)
+                + countDirection(bits, row, col, -rowIncrement, -colIncrement, limit - 1);
+    }
+
+    private int countDirection(long[] bits, int row, int col, int rowIncrement, int colIncrement, int limit) {
+        int count = 0;
+        int r = row + rowIncrement;
+        int c = col + colIncrement;
+        while (count < limit && r >= 0 && r < size && c >= 0 && c < size && isSet(bits, r * size + c)) {
+            count++;
+            r += rowIncrement;
+            c += colIncrement;
+        }
+        return count;
+    }
+
+    private static boolean isSet(long[] bits, int cell) {
+        return (bits[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Returns an independent copy of the board, including its move history.
+     */
+    public BitBoard copy() {
+        BitBoard copy = new BitBoard(size);
+        System.arraycopy(xs, 0, copy.xs, 0, xs.length);
+        System.arraycopy(os, 0, copy.os, 0, os.length);
+        copy.stoneCount = stoneCount;
+        copy.moves = moves != null ? moves.clone() : null;
+        copy.historyKnown = historyKnown;
+        return copy;
+    }
+
+    /**
+     * Converts the board into the {@code String[][]} form used by the client messages.
+     */
+    public String[][] toArray() {
+        String[][] board = new String[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                board[row][col] = String.valueOf(get(row, col));
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Builds a board from its {@code String[][]} form. Cells other than "X" and "O" are treated as empty.
+     */
+    public static BitBoard fromArray(String[][] board) {
+        BitBoard bitBoard = new BitBoard(board.length);
+        for (int row = 0; row < board.length; row++) {
+            for (int col = 0; col < board.length; col++) {
+                String cell = board[row][col];
+                if ("X".equals(cell) || "O".equals(cell)) {
+                    bitBoard.place(row * board.length + col, cell.charAt(0));
+                }
+            }
+        }
+        bitBoard.forgetHistory();
+        return bitBoard;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BitBoard other)) {
+            return false;
+        }
+        return size == other.size && Arrays.equals(xs, other.xs) && Arrays.equals(os, other.os);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * size + Arrays.hashCode(xs)) + Arrays.hashCode(os);
+    }
+}
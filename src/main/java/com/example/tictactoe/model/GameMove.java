@@ -0,0 +1,64 @@
+package com.example.tictactoe.model;
+
+import com.example.tictactoe.enumeration.GameVariant;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * Entry of the append-only move journal. Every move and every turn passed after a timeout is recorded,
+ * so any game can be rebuilt later, see {@link com.example.tictactoe.service.MoveJournalService#replay}.
+ */
+@Entity
+@Table(name = "game_move", indexes = @Index(name = "idx_game_move_game_seq", columnList = "game_id, seq", unique = true))
+@Data
+public class GameMove {
+    /**
+     * Cell of an entry recording that the player ran out of time and the turn passed to the opponent.
+     */
+    public static final int PASS = -1;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "game_id")
+    private String gameId;
+    /**
+     * Number of the board within the game. It changes when a player leaves and the board is reset.
+     */
+    private int round;
+    @Column(name = "seq")
+    private long sequence;
+    private String player;
+    private String opponent;
+    private int cell;
+    private String mark;
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date moveTime;
+    @Enumerated(EnumType.STRING)
+    private GameVariant variant;
+
+    public GameMove() {
+    }
+
+    public GameMove(TicTacToe game, String player, int cell) {
+        this.gameId = game.getGameId();
+        this.round = game.getRound();
+        this.sequence = game.getSequence();
+        boolean first = player.equals(game.getPlayer1());
+        this.player = player;
+        this.opponent = first ? game.getPlayer2() : game.getPlayer1();
+        this.cell = cell;
+        this.mark = first ? "X" : "O";
+        this.moveTime = new Date();
+        this.variant = game.getVariant();
+    }
+
+    /**
+     * Returns the variant of the game. Moves journaled before variants existed were played on the default board.
+     */
+    public GameVariant getVariant() {
+        return GameVariant.orDefault(variant);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.tictactoe.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.util.Date;
+
+/**
+ * Results of a player over all finished games, maintained incrementally when a game ends.
+ */
+@Entity
+@Table(name = "player_stats", indexes = @Index(name = "idx_player_stats_wins", columnList = "wins"))
+@Data
+public class PlayerStats {
+    /**
+     * Elo rating of a player who has not finished a game yet.
+     */
+    public static final int INITIAL_RATING = 1500;
+    /**
+     * Largest change of an Elo rating after one game.
+     */
+    public static final int K_FACTOR = 32;
+
+    @Id
+    private String player;
+    private int wins;
+    private int losses;
+    private int ties;
+    /**
+     * Number of games won in a row, up to the last game.
+     */
+    private int currentStreak;
+    private int bestStreak;
+    /**
+     * Elo rating, updated after every finished game.
+     */
+    @ColumnDefault("1500")
+    private int rating = INITIAL_RATING;
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date lastGameTime;
+
+    public PlayerStats() {
+    }
+
+    public PlayerStats(String player) {
+        this.player = player;
+    }
+
+    public int getGamesPlayed() {
+        return wins + losses + ties;
+    }
+
+    public void recordWin(Date time) {
+        wins++;
+        currentStreak++;
+        bestStreak = Math.max(bestStreak, currentStreak);
+        lastGameTime = time;
+    }
+
+    public void recordLoss(Date time) {
+        losses++;
+        currentStreak = 0;
+        lastGameTime = time;
+    }
+
+    public void recordTie(Date time) {
+        ties++;
+        currentStreak = 0;
+        lastGameTime = time;
+    }
+
+    /**
+     * Updates the Elo rating after a game.
+     *
+     * @param opponentRating the opponent's rating before the game
+     * @param score          1 for a win, 0.5 for a tie, 0 for a loss
+     */
+    public void updateRating(int opponentRating, double score) {
+        double expected = 1 / (1 + Math.pow(10, (opponentRating - rating) / 400.0));
+        rating = (int) Math.round(rating + K_FACTOR * (score - expected));
+    }
+}
@@ -2,6 +2,7 @@ package com.example.tictactoe.model;
 
 import com.example.tictactoe.converter.BoardConverter;
 import com.example.tictactoe.enumeration.GameState;
+import com.example.tictactoe.enumeration.GameVariant;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -14,7 +15,13 @@ import java.util.UUID;
  * Class representing a Tic-Tac-Toe game.
  */
 @Entity
-@Table(name = "tic_tac_toe")
+@Table(name = "tic_tac_toe", indexes = {
+        @Index(name = "idx_tic_tac_toe_game_id", columnList = "game_id"),
+        @Index(name = "idx_tic_tac_toe_last_move", columnList = "last_move_time, id"),
+        @Index(name = "idx_tic_tac_toe_player1_last_move", columnList = "player1, last_move_time, id"),
+        @Index(name = "idx_tic_tac_toe_player2_last_move", columnList = "player2, last_move_time, id"),
+        @Index(name = "idx_tic_tac_toe_winner", columnList = "winner")
+})
 @Data
 public class TicTacToe {
     @Id
@@ -24,40 +31,79 @@ public class TicTacToe {
     @Lob
     @Convert(converter = BoardConverter.class)
     @Column(length = 10000)
-    private String[][] board;
+    private BitBoard board;
     private String player1;
     private String player2;
     private String winner;
-    private String turn;
+    /**
+     * Player to move. Volatile, so moves out of turn can be dropped without taking the game's lock.
+     */
+    private volatile String turn;
     @Temporal(TemporalType.TIMESTAMP)
     private Date startTime;
     @Temporal(TemporalType.TIMESTAMP)
     private Date lastMoveTime;
     private GameState gameState;
-    public static final int BOARD_SIZE = 20;
-    private static final int WINNING_LENGTH = 5;
-    private static final long MOVE_TIME_LIMIT_MS = 30 * 1000; // 30 seconds per move
-    private static final long GAME_TIME_LIMIT_MS = 15 * 60 * 1000; // 15 minutes per game
+    @Enumerated(EnumType.STRING)
+    private GameVariant variant;
+    public static final long MOVE_TIME_LIMIT_MS = 30 * 1000; // 30 seconds per move
+    public static final long GAME_TIME_LIMIT_MS = 15 * 60 * 1000; // 15 minutes per game
     private long currentPlayerMoveStartTime;
     private long totalGameStartTime;
     private boolean timeout = false;
     private String timedOutPlayer;
+    /**
+     * Number of changes broadcast to the players so far, used to order move messages.
+     */
+    @Transient
+    private long sequence;
+    /**
+     * Number of the current board, increased every time the board is reset.
+     */
+    @Transient
+    private int round;
+    /**
+     * Time of the last join or move of a player, in milliseconds since the epoch, used to find abandoned games.
+     */
+    @Transient
+    private volatile long lastActivityTime;
+    /**
+     * Elo ratings of the players when they joined, used for matchmaking.
+     */
+    @Transient
+    private int player1Rating = PlayerStats.INITIAL_RATING;
+    @Transient
+    private int player2Rating = PlayerStats.INITIAL_RATING;
 
     public TicTacToe() {}
 
     public TicTacToe(String player1, String player2) {
-        this.gameId = UUID.randomUUID().toString();
+        this(UUID.randomUUID().toString(), player1, player2);
+    }
+
+    public TicTacToe(String gameId, String player1, String player2) {
+        this(gameId, player1, player2, GameVariant.GOMOKU);
+    }
+
+    public TicTacToe(String gameId, String player1, String player2, GameVariant variant) {
+        this.gameId = gameId;
+        this.variant = variant;
         this.player1 = player1;
         this.player2 = player2;
         this.turn = player1;
-        this.board = new String[BOARD_SIZE][BOARD_SIZE];
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                this.board[i][j] = " ";
-            }
-        }
+        resetBoard();
         gameState = GameState.WAITING_FOR_PLAYER;
         startGame();
+        touch();
+    }
+
+    /**
+     * Clears the board and forgets any winner, so the game can be played again from the start.
+     */
+    public void resetBoard() {
+        this.board = getVariant().newBoard();
+        winner = null;
+        round++;
     }
 
     public void startGame() {
@@ -72,13 +118,14 @@ public class TicTacToe {
      * @param move   the position of the move
      */
     public void makeMove(String player, int move) {
-        int row = move / BOARD_SIZE;
-        int col = move % BOARD_SIZE;
-        if (Objects.equals(board[row][col], " ")) {
-            board[row][col] = Objects.equals(player, player1) ? "X" : "O";
+        if (move < 0 || move >= board.getCellCount()) {
+            return;
+        }
+        if (board.place(move, Objects.equals(player, player1) ? BitBoard.X : BitBoard.O)) {
             turn = player.equals(player1) ? player2 : player1;
+            sequence++;
             lastMoveTime = new Date();
-            checkWinner();
+            checkWinner(move);
             updateGameState();
             startMoveTimer();
             if (isMoveTimeLimitExceeded()) {
@@ -89,68 +136,47 @@ public class TicTacToe {
         }
     }
 
+    /**
+     * Passes the turn to the other player without a move, e.g. when the move time limit is reached.
+     */
+    public void passTurn() {
+        turn = player1.equals(turn) ? player2 : player1;
+        sequence++;
+    }
+
     public boolean hasTimedOut(String player) {
         return timedOutPlayer != null && timedOutPlayer.equals(player);
     }
 
     /**
-     * Check if there is a winner. If a winning combination is found,
-     * the winner is set to the corresponding player.
+     * Returns the variant of the game. Games saved before variants existed were played on the default board.
      */
-    private void checkWinner() {
-        boolean isTie = true;
-
-        // Check horizontally, vertically, and diagonally
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                if (checkSequence(i, j, 1, 0) ||   // Check horizontally
-                        checkSequence(i, j, 0, 1) ||   // Check vertically
-                        checkSequence(i, j, 1, 1) ||   // Check diagonally (top-left to bottom-right)
-                        checkSequence(i, j, 1, -1)) {  // Check diagonally (top-right to bottom-left)
-                    isTie = false;
-                    break;
-                }
-            }
-            if (!isTie) {
-                break;
-            }
+    public GameVariant getVariant() {
+        return GameVariant.orDefault(variant);
+    }
+
+    /**
+     * Check if the stone just placed on the given cell completes a winning line, see
+     * {@link GameVariant#isWinningMove}. Only the lines through that cell can have changed.
+     * If a winning line is found, the winner is set to the corresponding mark.
+     */
+    private void checkWinner(int cell) {
+        if (getVariant().isWinningMove(board, cell)) {
+            setWinner(String.valueOf(board.get(cell)));
+            return;
         }
 
         // If no winner and the board is full, set winner to "TIE"
-        if (isTie && isBoardFull() && winner == null) {
+        if (isBoardFull() && winner == null) {
             setWinner("TIE");
         }
     }
 
     /**
-     * Helper method to check for winning sequence starting at position (i, j)
+     * Notes that a player did something in the game, so the game is not abandoned.
      */
-    private boolean checkSequence(int row, int col, int rowIncrement, int colIncrement) {
-        int endRow = row + (WINNING_LENGTH - 1) * rowIncrement;
-        int endCol = col + (WINNING_LENGTH - 1) * colIncrement;
-
-        // Check if the sequence is within bounds
-        if (endRow >= 0 && endRow < BOARD_SIZE && endCol >= 0 && endCol < BOARD_SIZE) {
-            String mark = getMark(row, col);
-
-            // Check for a winning sequence
-            for (int k = 0; k < WINNING_LENGTH; k++) {
-                if (!Objects.equals(board[row + k * rowIncrement][col + k * colIncrement], mark) ||
-                        Objects.equals(board[row][col], " ")) {
-                    return false;
-                }
-            }
-
-            // If a winning sequence is found, set the winner
-            setWinner(mark);
-            return true;
-        }
-
-        return false;
-    }
-
-    private String getMark(int row, int col) {
-        return board[row][col];
+    public void touch() {
+        lastActivityTime = System.currentTimeMillis();
     }
 
     public void startMoveTimer() {
@@ -167,6 +193,19 @@ public class TicTacToe {
         return elapsedTime > GAME_TIME_LIMIT_MS;
     }
 
+    public long getGameTimeLeftMs() {
+        return GAME_TIME_LIMIT_MS - (System.currentTimeMillis() - totalGameStartTime);
+    }
+
+    /**
+     * Ends the game because the game time limit was reached. The game counts as a tie.
+     */
+    public void endByTimeLimit() {
+        gameState = GameState.TIME_LIMIT_EXCEEDED;
+        timeout = true;
+        winner = "TIE";
+    }
+
     /**
      * Updates the game state based on the current state of the game.
      */
@@ -195,14 +234,7 @@ public class TicTacToe {
      * @return true if the board is full, false otherwise
      */
     private boolean isBoardFull() {
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                if (Objects.equals(board[i][j], " ")) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return board.isFull();
     }
 
     /**
@@ -0,0 +1,38 @@
+package com.example.tictactoe.model.dto;
+
+import com.example.tictactoe.enumeration.GameState;
+import com.example.tictactoe.enumeration.GameVariant;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+/**
+ * Line of the NDJSON export of finished games, see {@link com.example.tictactoe.service.GameExportService}.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ExportedGame {
+    private String gameId;
+    private GameVariant variant;
+    private String player1;
+    private String player2;
+    /**
+     * Name of the winner, or "TIE".
+     */
+    private String winner;
+    private GameState gameState;
+    /**
+     * Start and end of the game, in milliseconds since the epoch.
+     */
+    private Long startTime;
+    private Long endTime;
+    /**
+     * Number of stones on the final board, counted from its moves, so 0 for games saved before the move journal
+     * existed.
+     */
+    private int stones;
+    /**
+     * Cells played on the final board in order, -1 for a turn passed after a timeout.
+     * Empty for games saved before the move journal existed.
+     */
+    private int[] moves;
+}
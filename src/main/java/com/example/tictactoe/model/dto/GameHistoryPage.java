@@ -0,0 +1,26 @@
+package com.example.tictactoe.model.dto;
+
+import com.example.tictactoe.repository.GameHistoryView;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of saved games, newest first.
+ */
+@Data
+public class GameHistoryPage {
+    private List<GameHistoryView> games;
+    /**
+     * Cursor to pass as {@code before} for the next page, or null if this is the last page.
+     */
+    private String next;
+
+    public GameHistoryPage() {
+    }
+
+    public GameHistoryPage(List<GameHistoryView> games, String next) {
+        this.games = games;
+        this.next = next;
+    }
+}
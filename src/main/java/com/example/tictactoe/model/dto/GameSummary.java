@@ -0,0 +1,37 @@
+package com.example.tictactoe.model.dto;
+
+import com.example.tictactoe.enumeration.GameState;
+import com.example.tictactoe.enumeration.GameVariant;
+import com.example.tictactoe.model.TicTacToe;
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * Lobby entry of a game in progress, for choosing a game to watch.
+ */
+@Data
+public class GameSummary {
+    private String gameId;
+    private String player1;
+    private String player2;
+    private int moves;
+    private GameState gameState;
+    private GameVariant variant;
+    private Date startTime;
+    private boolean watched;
+
+    public GameSummary() {
+    }
+
+    public GameSummary(TicTacToe game, boolean watched) {
+        this.gameId = game.getGameId();
+        this.player1 = game.getPlayer1();
+        this.player2 = game.getPlayer2();
+        this.moves = game.getBoard().getStoneCount();
+        this.gameState = game.getGameState();
+        this.variant = game.getVariant();
+        this.startTime = game.getStartTime();
+        this.watched = watched;
+    }
+}
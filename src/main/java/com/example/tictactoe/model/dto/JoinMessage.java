@@ -1,5 +1,6 @@
 package com.example.tictactoe.model.dto;
 
+import com.example.tictactoe.enumeration.GameVariant;
 import lombok.Data;
 
 @Data
@@ -8,4 +9,12 @@ public class JoinMessage implements Message {
     private String gameId;
     private String player;
     private String content;
+    /**
+     * Whether to play against the bot if nobody is waiting for a game.
+     */
+    private boolean bot;
+    /**
+     * The board to play on, the default 20x20 board if not given.
+     */
+    private GameVariant variant;
 }
@@ -0,0 +1,40 @@
+package com.example.tictactoe.model.dto;
+
+import com.example.tictactoe.enumeration.GameState;
+import com.example.tictactoe.model.TicTacToe;
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * Compact message describing a single move, sent instead of the whole board after every move.
+ * Clients apply it to their copy of the board and request a full snapshot when they see a gap in the sequence.
+ */
+@Data
+public class MoveMessage implements Message {
+    private String type;
+    private String gameId;
+    private String content;
+    private int cell;
+    private String mark;
+    private long sequence;
+    private String turn;
+    private GameState gameState;
+    private String winner;
+    private Date lastMoveTime;
+
+    public MoveMessage() {
+    }
+
+    public MoveMessage(TicTacToe game, int cell) {
+        this.type = "game.move";
+        this.gameId = game.getGameId();
+        this.cell = cell;
+        this.mark = String.valueOf(game.getBoard().get(cell));
+        this.sequence = game.getSequence();
+        this.turn = game.getTurn();
+        this.gameState = game.getGameState();
+        this.winner = game.getWinner();
+        this.lastMoveTime = game.getLastMoveTime();
+    }
+}
@@ -2,6 +2,7 @@ package com.example.tictactoe.model.dto;
 
 import com.example.tictactoe.model.TicTacToe;
 import com.example.tictactoe.enumeration.GameState;
+import com.example.tictactoe.enumeration.GameVariant;
 import lombok.Data;
 import lombok.Getter;
 
@@ -22,6 +23,9 @@ public class TicTacToeMessage implements Message {
     private String sender;
     private Date lastMoveTime;
     private Date startTime;
+    private long sequence;
+    private GameVariant variant;
+    private int winLength;
 
     public TicTacToeMessage() {
     }
@@ -32,9 +36,12 @@ public class TicTacToeMessage implements Message {
         this.player2 = game.getPlayer2();
         this.winner = game.getWinner();
         this.turn = game.getTurn();
-        this.board = game.getBoard();
+        this.board = game.getBoard().toArray();
         this.gameState = game.getGameState();
         this.lastMoveTime = game.getLastMoveTime();
         this.startTime = game.getStartTime();
+        this.sequence = game.getSequence();
+        this.variant = game.getVariant();
+        this.winLength = game.getVariant().getWinLength();
     }
 }
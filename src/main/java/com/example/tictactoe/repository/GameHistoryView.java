@@ -0,0 +1,29 @@
+package com.example.tictactoe.repository;
+
+import com.example.tictactoe.enumeration.GameState;
+import com.example.tictactoe.enumeration.GameVariant;
+
+import java.util.Date;
+
+/**
+ * Projection of a saved game for history listings, without the board.
+ */
+public interface GameHistoryView {
+    Long getId();
+
+    String getGameId();
+
+    String getPlayer1();
+
+    String getPlayer2();
+
+    String getWinner();
+
+    GameState getGameState();
+
+    GameVariant getVariant();
+
+    Date getStartTime();
+
+    Date getLastMoveTime();
+}
@@ -0,0 +1,12 @@
+package com.example.tictactoe.repository;
+
+import com.example.tictactoe.model.GameMove;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface GameMoveRepository extends JpaRepository<GameMove, Long> {
+    List<GameMove> findByGameIdOrderBySequenceAsc(String gameId);
+}
@@ -0,0 +1,62 @@
+package com.example.tictactoe.repository;
+
+import com.example.tictactoe.model.PlayerStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PlayerStatsRepository extends JpaRepository<PlayerStats, String> {
+    List<PlayerStats> findTop10ByOrderByWinsDescTiesDescLossesAsc();
+
+    /**
+     * Returns the ratings of the players who finished a game most recently.
+     */
+    List<Rating> findByOrderByLastGameTimeDesc(Limit limit);
+
+    /**
+     * Returns the ratings of the players who have stats, without locking their rows.
+     */
+    List<Rating> findRatingsByPlayerIn(Collection<String> players);
+
+    /**
+     * Reads the stats of players and locks their rows until the transaction ends. Rows are locked in the order of
+     * the player names, so two transactions updating the same players cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<PlayerStats> findByPlayerInOrderByPlayer(Collection<String> players);
+
+    /**
+     * Returns which of the players already have stats, without locking their rows.
+     */
+    @Query("SELECT s.player FROM PlayerStats s WHERE s.player IN :players")
+    List<String> findExistingPlayers(@Param("players") Collection<String> players);
+
+    /**
+     * Creates the stats of a player who has not finished a game yet, unless another transaction already did.
+     * Only rows that exist can be locked, so this runs for every missing player before any row is locked with
+     * {@link #findByPlayerInOrderByPlayer(Collection)}. Only called for players missing from
+     * {@link #findExistingPlayers(Collection)}, since an ignored insert still locks the existing row.
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO player_stats (player, wins, losses, ties, current_streak, best_streak, rating) "
+            + "VALUES (:player, 0, 0, 0, 0, 0, " + PlayerStats.INITIAL_RATING + ")", nativeQuery = true)
+    void insertIfAbsent(@Param("player") String player);
+
+    /**
+     * The Elo rating of a player, read without the rest of the stats.
+     */
+    interface Rating {
+        String getPlayer();
+
+        int getRating();
+    }
+}
@@ -1,12 +1,45 @@
 package com.example.tictactoe.repository;
 
 import com.example.tictactoe.model.TicTacToe;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
 
+/**
+ * Saved games. History queries page by seeking past the last game of the previous page, newest first, ordered
+ * by {@code (lastMoveTime, id)}, so every page reads only its own rows from the matching index, however deep.
+ * The first page starts before a time after all games and the largest ID.
+ */
 @Repository
 public interface TicTacToeRepository extends JpaRepository<TicTacToe, Long> {
-    List<TicTacToe> findTop10ByOrderByLastMoveTimeAsc();
+    String HISTORY_COLUMNS = "SELECT g.id AS id, g.gameId AS gameId, g.player1 AS player1, g.player2 AS player2, "
+            + "g.winner AS winner, g.gameState AS gameState, g.variant AS variant, g.startTime AS startTime, "
+            + "g.lastMoveTime AS lastMoveTime FROM TicTacToe g ";
+    String BEFORE_CURSOR = "g.lastMoveTime <= :time AND (g.lastMoveTime < :time OR g.id < :id) ";
+    String NEWEST_FIRST = "ORDER BY g.lastMoveTime DESC, g.id DESC";
+
+    /**
+     * Returns saved games that ended before the given game, newest first.
+     */
+    @Query(HISTORY_COLUMNS + "WHERE " + BEFORE_CURSOR + NEWEST_FIRST)
+    List<GameHistoryView> findHistoryBefore(@Param("time") Date time, @Param("id") long id, Limit limit);
+
+    /**
+     * Returns saved games the player played first in that ended before the given game, newest first.
+     */
+    @Query(HISTORY_COLUMNS + "WHERE g.player1 = :player AND " + BEFORE_CURSOR + NEWEST_FIRST)
+    List<GameHistoryView> findHistoryAsPlayer1Before(@Param("player") String player, @Param("time") Date time,
+                                                     @Param("id") long id, Limit limit);
+
+    /**
+     * Returns saved games the player played second in that ended before the given game, newest first.
+     */
+    @Query(HISTORY_COLUMNS + "WHERE g.player2 = :player AND " + BEFORE_CURSOR + NEWEST_FIRST)
+    List<GameHistoryView> findHistoryAsPlayer2Before(@Param("player") String player, @Param("time") Date time,
+                                                     @Param("id") long id, Limit limit);
 }
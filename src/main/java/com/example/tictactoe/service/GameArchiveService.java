@@ -0,0 +1,96 @@
+package com.example.tictactoe.service;
+
+import com.example.tictactoe.converter.BoardCodec;
+import com.example.tictactoe.model.TicTacToe;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Saves finished games to the {@code tic_tac_toe} table in the background.
+ * <p>
+ * Games are queued in a {@link WriteBehindQueue} and inserted with JDBC batch inserts, one transaction per batch,
+ * so a slow database never blocks the thread handling the final move of a game. The same transaction adds
+ * the results to the players' stats through {@link LeaderboardService}.
+ */
+@Service
+public class GameArchiveService {
+    private static final String INSERT_GAME = "INSERT INTO tic_tac_toe (game_id, board, player1, player2, winner, turn, "
+            + "start_time, last_move_time, game_state, current_player_move_start_time, total_game_start_time, "
+            + "timeout, timed_out_player, variant) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LeaderboardService leaderboardService;
+    private final TransactionTemplate transactionTemplate;
+    private final WriteBehindQueue<TicTacToe> queue;
+
+    @Autowired
+    public GameArchiveService(JdbcTemplate jdbcTemplate, LeaderboardService leaderboardService,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${tictactoe.archive.capacity:10000}") int capacity,
+                              @Value("${tictactoe.archive.batch-size:200}") int batchSize,
+                              @Value("${tictactoe.archive.flush-interval-ms:200}") long flushIntervalMs,
+                              @Value("${tictactoe.archive.max-attempts:5}") int maxAttempts,
+                              @Value("${tictactoe.archive.offer-timeout-ms:50}") long offerTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.leaderboardService = leaderboardService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new WriteBehindQueue<>("game-archive", capacity, batchSize, flushIntervalMs, maxAttempts,
+                offerTimeoutMs, this::insertGames);
+    }
+
+    /**
+     * Queues a finished game for saving. The game must not be changed afterwards.
+     *
+     * @param game the game to save
+     */
+    public void archive(TicTacToe game) {
+        queue.add(game);
+    }
+
+    public WriteBehindQueue<TicTacToe> getQueue() {
+        return queue;
+    }
+
+    private void insertGames(List<TicTacToe> games) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_GAME, games, games.size(), (statement, game) -> {
+                statement.setString(1, game.getGameId());
+                statement.setString(2, game.getBoard() != null ? BoardCodec.encodeToString(game.getBoard()) : null);
+                statement.setString(3, game.getPlayer1());
+                statement.setString(4, game.getPlayer2());
+                statement.setString(5, game.getWinner());
+                statement.setString(6, game.getTurn());
+                statement.setTimestamp(7, toTimestamp(game.getStartTime()));
+                statement.setTimestamp(8, toTimestamp(game.getLastMoveTime()));
+                statement.setObject(9, game.getGameState() != null ? game.getGameState().ordinal() : null);
+                statement.setLong(10, game.getCurrentPlayerMoveStartTime());
+                statement.setLong(11, game.getTotalGameStartTime());
+                statement.setBoolean(12, game.isTimeout());
+                statement.setString(13, game.getTimedOutPlayer());
+                statement.setString(14, game.getVariant().name());
+            });
+            leaderboardService.recordResults(games);
+        });
+    }
+
+    private static Timestamp toTimestamp(Date date) {
+        return date != null ? new Timestamp(date.getTime()) : null;
+    }
+
+    /**
+     * Writes all queued games before the application shuts down.
+     */
+    @PreDestroy
+    public void flush() {
+        queue.close();
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.tictactoe.service;
+
+import com.example.tictactoe.enumeration.GameState;
+import com.example.tictactoe.enumeration.GameVariant;
+import com.example.tictactoe.model.GameMove;
+import com.example.tictactoe.model.dto.ExportedGame;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes all finished games as NDJSON, one {@link ExportedGame} per line, for offline analysis with
+ * {@link com.example.tictactoe.analytics.GameAnalytics}.
+ * <p>
+ * The export reads through its own connection, configured by {@code tictactoe.export.datasource.url}, so driver
+ * settings it needs, such as MySQL's {@code useCursorFetch=true}, don't change how the queries of the game server
+ * read their results. Games are streamed from the database with a cursor in one read-only transaction, and their
+ * moves are read from the move journal for a batch of games at a time, so only one batch is in memory however
+ * many games there are.
+ */
+@Service
+public class GameExportService {
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String SELECT_GAMES = "SELECT game_id, variant, player1, player2, winner, game_state, "
+            + "start_time, last_move_time FROM tic_tac_toe ORDER BY id";
+    private static final String SELECT_MOVES = "SELECT game_id, round, cell FROM game_move "
+            + "WHERE game_id IN (:gameIds) ORDER BY game_id, seq";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter writer;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    @Autowired
+    public GameExportService(ObjectMapper objectMapper,
+                             @Value("${tictactoe.export.datasource.url}") String url,
+                             @Value("${spring.datasource.driver-class-name:}") String driverClassName,
+                             @Value("${spring.datasource.username:}") String username,
+                             @Value("${spring.datasource.password:}") String password,
+                             @Value("${tictactoe.export.batch-size:500}") int batchSize) {
+        this(createDataSource(url, driverClassName, username, password), objectMapper, batchSize);
+    }
+
+    GameExportService(DataSource dataSource, ObjectMapper objectMapper, int batchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.writer = objectMapper.writerFor(ExportedGame.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Creates the data source of the export. Exports are rare and long, so each one opens a connection of its own
+     * rather than keeping a pool.
+     */
+    private static DataSource createDataSource(String url, String driverClassName, String username, String password) {
+        DataSourceBuilder<SimpleDriverDataSource> builder = DataSourceBuilder.create()
+                .type(SimpleDriverDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password);
+        if (!driverClassName.isEmpty()) {
+            builder.driverClassName(driverClassName);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Writes all finished games to the output, which is left open.
+     *
+     * @return the number of games written
+     */
+    public long export(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try {
+            Long count = transactionTemplate.execute(status -> {
+                List<ExportedGame> batch = new ArrayList<>(batchSize);
+                long[] written = new long[1];
+                jdbcTemplate.query(SELECT_GAMES, row -> {
+                    batch.add(toExportedGame(row));
+                    if (batch.size() == batchSize) {
+                        written[0] += writeBatch(batch, generator);
+                    }
+                });
+                written[0] += writeBatch(batch, generator);
+                return written[0];
+            });
+            generator.flush();
+            return count != null ? count : 0;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Adds the moves of a batch of games and writes them, then empties the batch.
+     *
+     * @return the number of games written
+     */
+    private int writeBatch(List<ExportedGame> batch, JsonGenerator generator) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<String> gameIds = new ArrayList<>(batch.size());
+        for (ExportedGame game : batch) {
+            gameIds.add(game.getGameId());
+        }
+        Map<String, List<Move>> movesByGame = new HashMap<>();
+        namedJdbcTemplate.query(SELECT_MOVES, Map.of("gameIds", gameIds), row -> {
+            movesByGame.computeIfAbsent(row.getString("game_id"), id -> new ArrayList<>())
+                    .add(new Move(row.getInt("round"), row.getInt("cell")));
+        });
+        try {
+            for (ExportedGame game : batch) {
+                int[] moves = finalBoardMoves(movesByGame.getOrDefault(game.getGameId(), List.of()));
+                game.setMoves(moves);
+                game.setStones((int) Arrays.stream(moves).filter(cell -> cell != GameMove.PASS).count());
+                writer.writeValue(generator, game);
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int written = batch.size();
+        batch.clear();
+        return written;
+    }
+
+    /**
+     * Converts a saved game, without its moves and stones. The board is not read, its stones are counted from
+     * the moves.
+     */
+    private ExportedGame toExportedGame(ResultSet row) throws SQLException {
+        ExportedGame exported = new ExportedGame();
+        exported.setGameId(row.getString("game_id"));
+        String variant = row.getString("variant");
+        exported.setVariant(variant != null ? GameVariant.valueOf(variant) : null);
+        exported.setPlayer1(row.getString("player1"));
+        exported.setPlayer2(row.getString("player2"));
+        exported.setWinner(row.getString("winner"));
+        int gameState = row.getInt("game_state");
+        exported.setGameState(row.wasNull() ? null : GameState.values()[gameState]);
+        exported.setStartTime(toMillis(row.getTimestamp("start_time")));
+        exported.setEndTime(toMillis(row.getTimestamp("last_move_time")));
+        return exported;
+    }
+
+    /**
+     * Returns the cells of the journal entries of a game, in sequence order, that were played on its final board.
+     */
+    private static int[] finalBoardMoves(List<Move> moves) {
+        int lastRound = moves.isEmpty() ? 0 : moves.get(moves.size() - 1).round();
+        return moves.stream()
+                .filter(move -> move.round() == lastRound)
+                .mapToInt(Move::cell)
+                .toArray();
+    }
+
+    private static Long toMillis(Timestamp timestamp) {
+        return timestamp != null ? timestamp.getTime() : null;
+    }
+
+    /**
+     * A journal entry of a game: the board it was played on and its cell.
+     */
+    private record Move(int round, int cell) {
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.tictactoe.service;
+
+import com.example.tictactoe.enumeration.GameState;
+import com.example.tictactoe.manager.TicTacToeManager;
+import com.example.tictactoe.model.TicTacToe;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters of the game server, exposed through Actuator on {@code /actuator/prometheus}.
+ * <p>
+ * Gauges read the manager, the timer service and the write-behind queues when they are scraped, so nothing
+ * is counted twice on the hot path. Moves, timeouts, disconnects and finished games are recorded by
+ * {@link com.example.tictactoe.controller.MessageController}.
+ */
+@Component
+public class GameMetrics {
+    private final MeterRegistry registry;
+    private final Timer acceptedMoves;
+    private final Timer rejectedMoves;
+    private final Counter moveTimeouts;
+    private final Counter disconnects;
+    private final Counter outOfTurnMoves;
+
+    @Autowired
+    public GameMetrics(MeterRegistry registry, TicTacToeManager ticTacToeManager, GameTimerService gameTimerService,
+                       GameArchiveService gameArchiveService, MoveJournalService moveJournalService,
+                       MoveRateLimiter moveRateLimiter) {
+        this.registry = registry;
+        Gauge.builder("tictactoe.games.active", ticTacToeManager, TicTacToeManager::getActiveGameCount)
+                .description("Games in progress or waiting for a second player")
+                .register(registry);
+        Gauge.builder("tictactoe.games.waiting", ticTacToeManager, TicTacToeManager::getWaitingGameCount)
+                .description("Games waiting for a second player")
+                .register(registry);
+        Gauge.builder("tictactoe.timers.pending", gameTimerService, GameTimerService::getPendingCount)
+                .description("Scheduled move and game timeouts")
+                .register(registry);
+        bindQueue(gameArchiveService.getQueue());
+        bindQueue(moveJournalService.getQueue());
+
+        this.acceptedMoves = moveTimer("accepted");
+        this.rejectedMoves = moveTimer("rejected");
+        this.moveTimeouts = Counter.builder("tictactoe.moves.timeouts")
+                .description("Turns passed because the move time limit was reached")
+                .register(registry);
+        this.disconnects = Counter.builder("tictactoe.players.disconnects")
+                .description("Players who disconnected from a running game")
+                .register(registry);
+        FunctionCounter.builder("tictactoe.moves.dropped", moveRateLimiter, MoveRateLimiter::getLimitedCount)
+                .description("Moves dropped before reaching their game")
+                .tag("reason", "rate_limited")
+                .register(registry);
+        this.outOfTurnMoves = Counter.builder("tictactoe.moves.dropped")
+                .description("Moves dropped before reaching their game")
+                .tag("reason", "out_of_turn")
+                .register(registry);
+    }
+
+    /**
+     * Records the time taken to handle a move message, from receiving it to broadcasting the result.
+     *
+     * @param nanos    the handling time in nanoseconds
+     * @param accepted true if a stone was placed, false if the move was ignored or refused
+     */
+    public void recordMove(long nanos, boolean accepted) {
+        (accepted ? acceptedMoves : rejectedMoves).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordTimeout() {
+        moveTimeouts.increment();
+    }
+
+    public void recordDisconnect() {
+        disconnects.increment();
+    }
+
+    /**
+     * Counts a move dropped without taking the game's lock, because it wasn't the sender's turn or the move
+     * could not change the board.
+     */
+    public void recordOutOfTurn() {
+        outOfTurnMoves.increment();
+    }
+
+    /**
+     * Counts a finished game by its outcome: a win, a tie, or the game time limit.
+     */
+    public void recordGameOver(TicTacToe game) {
+        String outcome;
+        if (game.getGameState() == GameState.TIME_LIMIT_EXCEEDED) {
+            outcome = "time_limit";
+        } else if ("TIE".equals(game.getWinner())) {
+            outcome = "tie";
+        } else {
+            outcome = "win";
+        }
+        recordOutcome(outcome);
+    }
+
+    /**
+     * Counts a game that ended because a player disconnected.
+     */
+    public void recordForfeit() {
+        recordOutcome("forfeit");
+    }
+
+    private void recordOutcome(String outcome) {
+        Counter.builder("tictactoe.games.finished")
+                .description("Finished games by outcome")
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    private Timer moveTimer(String result) {
+        return Timer.builder("tictactoe.move.latency")
+                .description("Time to handle a move message")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private void bindQueue(WriteBehindQueue<?> queue) {
+        String name = queue.getName();
+        Gauge.builder("tictactoe.queue.depth", queue, WriteBehindQueue::getDepth)
+                .description("Items waiting to be written to the database")
+                .tag("queue", name)
+                .register(registry);
+        FunctionCounter.builder("tictactoe.queue.written", queue, WriteBehindQueue::getWrittenCount)
+                .tag("queue", name)
+                .register(registry);
+        FunctionCounter.builder("tictactoe.queue.failed", queue, WriteBehindQueue::getFailedCount)
+                .description("Items dropped after the last failed attempt")
+                .tag("queue", name)
+                .register(registry);
+        FunctionCounter.builder("tictactoe.queue.caller.writes", queue, WriteBehindQueue::getCallerWriteCount)
+                .description("Items written on the caller's thread because the queue was full")
+                .tag("queue", name)
+                .register(registry);
+        FunctionTimer.builder("tictactoe.db.save", queue, WriteBehindQueue::getFlushCount,
+                        WriteBehindQueue::getFlushNanos, TimeUnit.NANOSECONDS)
+                .description("Time spent writing batches to the database")
+                .tag("queue", name)
+                .register(registry);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.tictactoe.service;
+
+import com.example.tictactoe.enumeration.GameState;
+import com.example.tictactoe.manager.TicTacToeManager;
+import com.example.tictactoe.model.TicTacToe;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Finds games that were abandoned without a clean disconnect, so they don't stay in memory forever.
+ * <p>
+ * A background thread looks at every game once per sweep interval. A game waiting for a second player expires when
+ * nobody joined it within the waiting TTL, and a game in progress expires when no player made a move within the
+ * idle TTL, or when it is past its time limit but still registered. Expired games are handed to the handler given
+ * to {@link #start}, which finalizes them like any other finished game.
+ */
+@Service
+public class GameSweeper {
+    private static final Logger log = LoggerFactory.getLogger(GameSweeper.class);
+
+    private final TicTacToeManager ticTacToeManager;
+    private final long sweepIntervalMs;
+    private final long waitingTtlMs;
+    private final long idleTtlMs;
+    private final AtomicLong expiredCount = new AtomicLong();
+
+    private final ScheduledExecutorService sweeper;
+
+    @Autowired
+    public GameSweeper(TicTacToeManager ticTacToeManager,
+                       @Value("${tictactoe.registry.sweep-interval-ms:10000}") long sweepIntervalMs,
+                       @Value("${tictactoe.registry.waiting-ttl-ms:600000}") long waitingTtlMs,
+                       @Value("${tictactoe.registry.idle-ttl-ms:300000}") long idleTtlMs) {
+        this.ticTacToeManager = ticTacToeManager;
+        this.sweepIntervalMs = sweepIntervalMs;
+        this.waitingTtlMs = waitingTtlMs;
+        this.idleTtlMs = idleTtlMs;
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts sweeping in the background.
+     *
+     * @param expire called with every expired game, without holding its lock; it must check
+     *               {@link #isExpired} again while holding the lock before finalizing the game
+     */
+    public void start(Consumer<TicTacToe> expire) {
+        sweeper.scheduleWithFixedDelay(() -> sweepSafely(expire), sweepIntervalMs, sweepIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * Returns true if the game was abandoned and should be finalized. Read while holding the game's lock.
+     *
+     * @param game the game
+     * @param now  the current time in milliseconds since the epoch
+     */
+    public boolean isExpired(TicTacToe game, long now) {
+        long idleMs = now - game.getLastActivityTime();
+        if (game.getPlayer2() == null) {
+            return idleMs > waitingTtlMs;
+        }
+        return idleMs > idleTtlMs || game.getGameState() == GameState.TIME_LIMIT_EXCEEDED
+                || game.isGameTimeLimitExceeded();
+    }
+
+    /**
+     * Returns the number of games handed to the expiry handler so far.
+     */
+    public long getExpiredCount() {
+        return expiredCount.get();
+    }
+
+    /**
+     * Hands every expired game to the handler.
+     *
+     * @return the number of expired games
+     */
+    int sweep(Consumer<TicTacToe> expire) {
+        long now = System.currentTimeMillis();
+        List<TicTacToe> expired = new ArrayList<>();
+        for (TicTacToe game : ticTacToeManager.getGames()) {
+            synchronized (game) {
+                if (isExpired(game, now)) {
+                    expired.add(game);
+                }
+            }
+        }
+        // Handled after releasing the locks, the handler takes each game's lock itself
+        for (TicTacToe game : expired) {
+            expire.accept(game);
+        }
+        expiredCount.addAndGet(expired.size());
+        return expired.size();
+    }
+
+    private void sweepSafely(Consumer<TicTacToe> expire) {
+        try {
+            int expired = sweep(expire);
+            if (expired > 0) {
+                log.info("Expired {} abandoned games, {} games remain", expired,
+                        ticTacToeManager.getActiveGameCount());
+            }
+        } catch (RuntimeException e) {
+            log.error("Sweeping abandoned games failed", e);
+        }
+    }
+}
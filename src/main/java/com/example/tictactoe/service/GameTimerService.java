@@ -0,0 +1,152 @@
+package com.example.tictactoe.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Schedules the move and game time limits of all games on one shared pool of daemon threads.
+ * <p>
+ * Each game has at most one pending move timeout and one pending game timeout. Scheduling a new move timeout
+ * cancels the previous one, and {@link #cancel(String)} drops both when the game ends. A timeout forgets itself
+ * when it fires.
+ */
+@Service
+public class GameTimerService {
+    private static final int THREADS = 2;
+
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Map<String, Timeout> moveTimeouts = new ConcurrentHashMap<>();
+    private final Map<String, Timeout> gameTimeouts = new ConcurrentHashMap<>();
+
+    public GameTimerService() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        scheduler = new ScheduledThreadPoolExecutor(THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "game-timer-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Cancelled timeouts are the common case, don't keep them in the queue until they expire
+        scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Schedules the move timeout of a game, replacing the pending one if there is any.
+     *
+     * @param gameId  the ID of the game
+     * @param delayMs the time the current player has left for the move
+     * @param task    the task to run when the time is up
+     */
+    public void scheduleMoveTimeout(String gameId, long delayMs, Runnable task) {
+        Timeout timeout = moveTimeouts.compute(gameId, (id, previous) -> {
+            if (previous != null) {
+                previous.cancel();
+            }
+            return schedule(moveTimeouts, id, delayMs, task);
+        });
+        timeout.forgetIfFired();
+    }
+
+    /**
+     * Schedules the game timeout of a game unless one is already pending.
+     *
+     * @param gameId  the ID of the game
+     * @param delayMs the time left until the game time limit is reached
+     * @param task    the task to run when the time is up
+     * @return true if the timeout was scheduled, false if the game already had one
+     */
+    public boolean scheduleGameTimeout(String gameId, long delayMs, Runnable task) {
+        boolean[] scheduled = new boolean[1];
+        Timeout timeout = gameTimeouts.computeIfAbsent(gameId, id -> {
+            scheduled[0] = true;
+            return schedule(gameTimeouts, id, Math.max(0, delayMs), task);
+        });
+        timeout.forgetIfFired();
+        return scheduled[0];
+    }
+
+    /**
+     * Cancels all pending timeouts of a game.
+     *
+     * @param gameId the ID of the game
+     */
+    public void cancel(String gameId) {
+        Timeout moveTimeout = moveTimeouts.remove(gameId);
+        if (moveTimeout != null) {
+            moveTimeout.cancel();
+        }
+        Timeout gameTimeout = gameTimeouts.remove(gameId);
+        if (gameTimeout != null) {
+            gameTimeout.cancel();
+        }
+    }
+
+    /**
+     * Returns true if the game has a move or game timeout that has neither fired nor been cancelled.
+     *
+     * @param gameId the ID of the game
+     */
+    public boolean hasTimeout(String gameId) {
+        return moveTimeouts.containsKey(gameId) || gameTimeouts.containsKey(gameId);
+    }
+
+    private Timeout schedule(Map<String, Timeout> timeouts, String gameId, long delayMs, Runnable task) {
+        Timeout timeout = new Timeout(timeouts, gameId, task);
+        timeout.future = scheduler.schedule(timeout, delayMs, TimeUnit.MILLISECONDS);
+        return timeout;
+    }
+
+    /**
+     * Returns the number of timeouts waiting to fire.
+     */
+    public int getPendingCount() {
+        return scheduler.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * A pending timeout, which removes its own entry from the map it was scheduled from before running the task.
+     * An entry that has been replaced in the meantime is left alone. A timeout can fire before it is in the map,
+     * so the scheduling side checks again once it has been added.
+     */
+    private static class Timeout implements Runnable {
+        private final Map<String, Timeout> timeouts;
+        private final String gameId;
+        private final Runnable task;
+        private volatile ScheduledFuture<?> future;
+        private volatile boolean fired;
+
+        Timeout(Map<String, Timeout> timeouts, String gameId, Runnable task) {
+            this.timeouts = timeouts;
+            this.gameId = gameId;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            fired = true;
+            timeouts.remove(gameId, this);
+            task.run();
+        }
+
+        void cancel() {
+            future.cancel(false);
+        }
+
+        void forgetIfFired() {
+            if (fired) {
+                timeouts.remove(gameId, this);
+            }
+        }
+    }
+}
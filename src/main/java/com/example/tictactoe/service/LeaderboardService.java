@@ -0,0 +1,275 @@
+package com.example.tictactoe.service;
+
+import com.example.tictactoe.bot.BotPlayer;
+import com.example.tictactoe.model.PlayerStats;
+import com.example.tictactoe.model.TicTacToe;
+import com.example.tictactoe.repository.PlayerStatsRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Maintains the per-player results behind the leaderboard and serves the leaderboard from memory.
+ * <p>
+ * Results and Elo ratings are updated in {@link PlayerStats} when finished games are saved, so the leaderboard
+ * never reads the games table. Games against the bot are not counted, so the bot never shows up on the leaderboard
+ * and practice games do not change the ratings of human players. The top players are cached until results change or the cache is older than its TTL.
+ * Updates lock the rows of the players in the database, so concurrent batches, on this node or another one,
+ * never overwrite each other's results.
+ * <p>
+ * The ratings used for matchmaking are served from memory too, so joining a game never waits for the database.
+ * At startup the cache is filled with the ratings of the players who played most recently, and it is updated
+ * whenever a game is saved on this node. A player missing from the cache, e.g. one whose games were all saved by
+ * another node since the startup, is matched with the initial rating once; the stored rating is loaded in the
+ * background, together with the ratings of other missing players, and cached for their next games. The cache
+ * holds at most a configured number of players and drops the least recently used one.
+ */
+@Service
+public class LeaderboardService {
+    private static final Logger log = LoggerFactory.getLogger(LeaderboardService.class);
+    private static final String TIE = "TIE";
+
+    private final PlayerStatsRepository playerStatsRepository;
+    private final long ttlMs;
+    private volatile List<PlayerStats> leaderboard;
+    private volatile long loadedAt;
+    /**
+     * Serializes reloads and invalidations, so a reload that read the stats before a commit cannot put the old
+     * leaderboard back after the commit invalidated it. A lock instead of a monitor, so a virtual thread waiting
+     * for the database while holding it does not pin its carrier thread.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int ratingCacheSize;
+    private final Map<String, Integer> ratings;
+    /**
+     * Players whose rating was missing from the cache and has not been loaded yet.
+     */
+    private final Set<String> missingRatings = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean loadScheduled = new AtomicBoolean();
+    private final ExecutorService ratingLoader;
+
+    public LeaderboardService(PlayerStatsRepository playerStatsRepository, long ttlMs) {
+        this(playerStatsRepository, ttlMs, 100_000);
+    }
+
+    @Autowired
+    public LeaderboardService(PlayerStatsRepository playerStatsRepository,
+                              @Value("${tictactoe.leaderboard.ttl-ms:30000}") long ttlMs,
+                              @Value("${tictactoe.leaderboard.rating-cache-size:100000}") int ratingCacheSize) {
+        this.playerStatsRepository = playerStatsRepository;
+        this.ttlMs = ttlMs;
+        this.ratingCacheSize = ratingCacheSize;
+        this.ratings = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                return size() > ratingCacheSize;
+            }
+        });
+        this.ratingLoader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rating-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Fills the rating cache with the stored ratings of the players who finished a game most recently.
+     */
+    @PostConstruct
+    public void loadRatings() {
+        List<PlayerStatsRepository.Rating> stored =
+                playerStatsRepository.findByOrderByLastGameTimeDesc(Limit.of(ratingCacheSize));
+        // The most recent players go in last, so they are the last ones the cache drops
+        for (int i = stored.size() - 1; i >= 0; i--) {
+            ratings.putIfAbsent(stored.get(i).getPlayer(), stored.get(i).getRating());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        ratingLoader.shutdownNow();
+    }
+
+    /**
+     * Returns the top players, from the cache if it is still valid.
+     */
+    public List<PlayerStats> getLeaderboard() {
+        List<PlayerStats> cached = leaderboard;
+        if (cached != null && System.currentTimeMillis() - loadedAt < ttlMs) {
+            return cached;
+        }
+        lock.lock();
+        try {
+            if (leaderboard == null || System.currentTimeMillis() - loadedAt >= ttlMs) {
+                leaderboard = List.copyOf(playerStatsRepository.findTop10ByOrderByWinsDescTiesDescLossesAsc());
+                loadedAt = System.currentTimeMillis();
+            }
+            return leaderboard;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the cached Elo rating of a player. Never reads the database: if the rating is not cached, the initial
+     * rating is returned and the stored one is loaded in the background.
+     *
+     * @param player the name of the player
+     */
+    public int getRating(String player) {
+        Integer rating = ratings.get(player);
+        if (rating != null) {
+            return rating;
+        }
+        if (missingRatings.add(player) && loadScheduled.compareAndSet(false, true)) {
+            ratingLoader.execute(this::loadMissingRatings);
+        }
+        return PlayerStats.INITIAL_RATING;
+    }
+
+    /**
+     * Loads the ratings of all players missing from the cache with one query. Players without stats are cached
+     * with the initial rating, so they are not looked up again before their first game is saved.
+     */
+    private void loadMissingRatings() {
+        loadScheduled.set(false);
+        List<String> players = List.copyOf(missingRatings);
+        try {
+            Map<String, Integer> loaded = new HashMap<>();
+            players.forEach(player -> loaded.put(player, PlayerStats.INITIAL_RATING));
+            playerStatsRepository.findRatingsByPlayerIn(players)
+                    .forEach(rating -> loaded.put(rating.getPlayer(), rating.getRating()));
+            // A rating committed meanwhile is newer than the one just read
+            loaded.forEach(ratings::putIfAbsent);
+        } catch (RuntimeException e) {
+            log.warn("Loading the ratings of {} players failed", players.size(), e);
+        } finally {
+            players.forEach(missingRatings::remove);
+        }
+    }
+
+    /**
+     * Adds the results of finished games to the players' stats and invalidates the cached leaderboard once the
+     * transaction commits. Must be called inside the transaction that saves the games; the rows of the players
+     * stay locked until it ends.
+     *
+     * @param games the finished games, with the winner's name or "TIE" as winner
+     */
+    public void recordResults(List<TicTacToe> games) {
+        Collection<PlayerStats> updated = updateStats(games);
+        if (updated.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> newRatings = new HashMap<>();
+        for (PlayerStats playerStats : updated) {
+            newRatings.put(playerStats.getPlayer(), playerStats.getRating());
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(newRatings);
+                }
+            });
+        } else {
+            invalidate(newRatings);
+        }
+    }
+
+    /**
+     * Drops the cached leaderboard and caches the committed ratings.
+     */
+    private void invalidate(Map<String, Integer> newRatings) {
+        ratings.putAll(newRatings);
+        lock.lock();
+        try {
+            leaderboard = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Updates the stats of the players of the games.
+     *
+     * @return the updated stats, empty if nothing changed
+     */
+    private Collection<PlayerStats> updateStats(List<TicTacToe> games) {
+        Map<String, PlayerStats> stats = new HashMap<>();
+        Set<String> players = new TreeSet<>();
+        for (TicTacToe game : games) {
+            if (isRated(game)) {
+                players.add(game.getPlayer1());
+                players.add(game.getPlayer2());
+            }
+        }
+        if (players.isEmpty()) {
+            return List.of();
+        }
+        // Create the missing rows before locking any, so all rows are locked by one read in the order of the names
+        Set<String> newPlayers = new TreeSet<>(players);
+        newPlayers.removeAll(playerStatsRepository.findExistingPlayers(players));
+        newPlayers.forEach(playerStatsRepository::insertIfAbsent);
+        playerStatsRepository.findByPlayerInOrderByPlayer(players).forEach(playerStats -> stats.put(playerStats.getPlayer(), playerStats));
+
+        for (TicTacToe game : games) {
+            if (!isRated(game)) {
+                continue;
+            }
+            PlayerStats player1 = stats.computeIfAbsent(game.getPlayer1(), PlayerStats::new);
+            PlayerStats player2 = stats.computeIfAbsent(game.getPlayer2(), PlayerStats::new);
+            Date time = game.getLastMoveTime() != null ? game.getLastMoveTime() : new Date();
+            double score1;
+            if (game.getPlayer1().equals(game.getWinner())) {
+                player1.recordWin(time);
+                player2.recordLoss(time);
+                score1 = 1;
+            } else if (game.getPlayer2().equals(game.getWinner())) {
+                player2.recordWin(time);
+                player1.recordLoss(time);
+                score1 = 0;
+            } else if (TIE.equals(game.getWinner())) {
+                player1.recordTie(time);
+                player2.recordTie(time);
+                score1 = 0.5;
+            } else {
+                continue;
+            }
+            int rating1 = player1.getRating();
+            player1.updateRating(player2.getRating(), score1);
+            player2.updateRating(rating1, 1 - score1);
+        }
+        playerStatsRepository.saveAll(stats.values());
+        return stats.values();
+    }
+
+    /**
+     * Returns true if the game counts for the leaderboard: it had two players and neither of them was the bot.
+     */
+    private static boolean isRated(TicTacToe game) {
+        return game.getPlayer1() != null && game.getPlayer2() != null
+                && !BotPlayer.isBot(game.getPlayer1()) && !BotPlayer.isBot(game.getPlayer2());
+    }
+}
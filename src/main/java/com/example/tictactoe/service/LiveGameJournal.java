@@ -0,0 +1,541 @@
+package com.example.tictactoe.service;
+
+import com.example.tictactoe.converter.BoardCodec;
+import com.example.tictactoe.enumeration.GameState;
+import com.example.tictactoe.enumeration.GameVariant;
+import com.example.tictactoe.model.TicTacToe;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Local, append-only journal of the state of live games, so that games in progress survive a restart.
+ * <p>
+ * Every change to a game appends the full state of the game to a memory-mapped segment file, and ending a game
+ * appends a removal. Appending is a copy into the mapped memory, which the operating system writes back to
+ * the file in the background, so the journal survives the process crashing but not the machine losing power.
+ * When a segment is full, appending switches to the next segment, which a background thread has already mapped.
+ * The background thread then writes the latest state of every live game to a checkpoint file numbered between
+ * the two segments and deletes the full segment, so the journal stays proportional to the number of live games
+ * and moves never wait for the copy or for the file system. A checkpoint may hold states newer than the segment
+ * after it, which is harmless since that segment holds every change made after the switch, in order.
+ * <p>
+ * A mapped file cannot be unmapped explicitly, only by garbage collecting its buffer, and the disk space of a
+ * deleted segment comes back when its mapping goes. The journal therefore drops every reference to a segment
+ * before deleting it, so a deleted segment holds its space only until the next garbage collection that finds its
+ * buffer, not for as long as the application runs.
+ * <p>
+ * The directory belongs to one application at a time, which holds an exclusive lock on a lock file in it; an
+ * application finding the directory locked fails to start instead of mixing its segments with the other's.
+ * <p>
+ * On startup the segments are read back, the games still in progress are kept for
+ * {@link #takeRecoveredGames()}, and a new segment is started with just their state.
+ * <p>
+ * The game clock is journaled as the time played so far rather than the time the game started, and restored
+ * relative to the time the game is taken back, so the time the application was down is not charged to the game.
+ * <p>
+ * Each record is {@code [length][CRC-32][payload]}. A record cut short by a crash fails its checksum and ends
+ * the replay of its segment.
+ */
+@Service
+public class LiveGameJournal {
+    private static final Logger log = LoggerFactory.getLogger(LiveGameJournal.class);
+    private static final String SEGMENT_PREFIX = "live-games-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String LOCK_FILE = "live-games.lock";
+    private static final int HEADER_BYTES = 8;
+    private static final byte STATE = 1;
+    private static final byte REMOVED = 2;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * The last record of every live game, copied to the next segment when the current one is full.
+     */
+    private final Map<String, byte[]> latest = new ConcurrentHashMap<>();
+    private final List<byte[]> recovered = new ArrayList<>();
+
+    /**
+     * Writes checkpoints, deletes full segments and maps the next segment.
+     */
+    private final ExecutorService roller;
+
+    /**
+     * The highest segment number handed out so far. Guarded by the lock, like the segments.
+     */
+    private long segmentNumber;
+    private MappedByteBuffer segment;
+    private MappedByteBuffer nextSegment;
+    private Path nextSegmentPath;
+
+    /**
+     * Held while the journal is open, so two applications never share a directory.
+     */
+    private FileChannel lockChannel;
+
+    @Autowired
+    public LiveGameJournal(@Value("${tictactoe.recovery.enabled:true}") boolean enabled,
+                           @Value("${tictactoe.recovery.directory:data/recovery}") String directory,
+                           @Value("${tictactoe.recovery.segment-size-mb:64}") int segmentSizeMb) {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.segmentSize = segmentSizeMb * 1024 * 1024;
+        this.roller = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "live-game-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            open();
+            roller.execute(this::prepareNextSegment);
+        }
+    }
+
+    /**
+     * Records the current state of a game. Must be called while holding the game's lock.
+     *
+     * @param game the game, which is in progress or waiting for a player
+     */
+    public void record(TicTacToe game) {
+        if (enabled) {
+            byte[] record = encode(game, System.currentTimeMillis());
+            latest.put(game.getGameId(), record);
+            append(record);
+        }
+    }
+
+    /**
+     * Records that a game ended, so it is not restored after a restart.
+     *
+     * @param gameId the ID of the game
+     */
+    public void remove(String gameId) {
+        if (enabled && latest.remove(gameId) != null) {
+            append(encodeRemoval(gameId));
+        }
+    }
+
+    /**
+     * Returns the games that were in progress when the application stopped, once. Their game clocks carry on from
+     * now.
+     */
+    public List<TicTacToe> takeRecoveredGames() {
+        long now = System.currentTimeMillis();
+        List<TicTacToe> games = new ArrayList<>(recovered.size());
+        for (byte[] record : recovered) {
+            games.add(decode(record, now));
+        }
+        recovered.clear();
+        return games;
+    }
+
+    /**
+     * Returns the number of games whose state is in the journal.
+     */
+    public int getLiveGameCount() {
+        return latest.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        roller.shutdown();
+        try {
+            if (!roller.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Live game journal checkpoint still running at shutdown");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            if (segment != null) {
+                segment.force();
+            }
+            if (nextSegmentPath != null) {
+                nextSegment = null;
+                Files.deleteIfExists(nextSegmentPath);
+                nextSegmentPath = null;
+            }
+            if (lockChannel != null) {
+                lockChannel.close();
+                lockChannel = null;
+            }
+        } catch (IOException e) {
+            log.warn("Cannot close the live game journal in {}", directory, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void open() {
+        try {
+            Files.createDirectories(directory);
+            lockDirectory();
+            List<Path> segments = listSegments();
+            Map<String, byte[]> records = new LinkedHashMap<>();
+            for (Path path : segments) {
+                replaySegment(path, records);
+            }
+            recovered.addAll(records.values());
+            latest.putAll(records);
+            segmentNumber = segments.isEmpty() ? 0 : segmentNumber(segments.get(segments.size() - 1));
+            long number = ++segmentNumber;
+            segment = mapSegment(number, Math.max(segmentSize, 2 * checkpointSize(records.values())));
+            for (byte[] record : records.values()) {
+                put(segment, record);
+            }
+            segment.force();
+            for (Path path : segments) {
+                Files.deleteIfExists(path);
+            }
+            if (!recovered.isEmpty()) {
+                log.info("Recovered {} live games from {}", recovered.size(), directory);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the live game journal in " + directory, e);
+        }
+    }
+
+    /**
+     * Takes the lock file of the directory, or fails if another application, or another journal of this one,
+     * holds it.
+     */
+    private void lockDirectory() throws IOException {
+        Path path = directory.resolve(LOCK_FILE);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock fileLock;
+        try {
+            fileLock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            fileLock = null;
+        }
+        if (fileLock == null) {
+            channel.close();
+            throw new IllegalStateException("The live game journal in " + directory.toAbsolutePath()
+                    + " is in use by another application, configure a separate tictactoe.recovery.directory");
+        }
+        lockChannel = channel;
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted((a, b) -> Long.compare(segmentNumber(a), segmentNumber(b)))
+                    .toList();
+        }
+    }
+
+    private static long segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Reads the records of a segment into the map of latest records, up to the end or the first damaged record.
+     */
+    private static void replaySegment(Path path, Map<String, byte[]> records) throws IOException {
+        byte[] data = Files.readAllBytes(path);
+        int position = 0;
+        while (position + HEADER_BYTES <= data.length) {
+            int length = readInt(data, position);
+            if (length <= 0 || position + HEADER_BYTES + length > data.length) {
+                break;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(data, position + HEADER_BYTES, length);
+            if ((int) crc.getValue() != readInt(data, position + 4)) {
+                log.warn("Damaged record at offset {} of {}, ignoring the rest of the segment", position, path);
+                break;
+            }
+            byte[] payload = new byte[length];
+            System.arraycopy(data, position + HEADER_BYTES, payload, 0, length);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            byte kind = in.readByte();
+            String gameId = in.readUTF();
+            if (kind == STATE) {
+                records.put(gameId, payload);
+            } else {
+                records.remove(gameId);
+            }
+            position += HEADER_BYTES + length;
+        }
+    }
+
+    private static int readInt(byte[] data, int position) {
+        return (data[position] & 0xff) << 24 | (data[position + 1] & 0xff) << 16
+                | (data[position + 2] & 0xff) << 8 | (data[position + 3] & 0xff);
+    }
+
+    private void append(byte[] payload) {
+        lock.lock();
+        try {
+            if (segment.remaining() < HEADER_BYTES + payload.length) {
+                switchSegment(HEADER_BYTES + payload.length);
+            }
+            put(segment, payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write the live game journal", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void put(ByteBuffer buffer, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+    }
+
+    /**
+     * Continues in the next segment and leaves the checkpoint of the full one to the background thread.
+     * Maps the next segment right here only if the background thread hasn't got to it yet.
+     * Called while holding the lock.
+     *
+     * @param reserve the number of bytes that must be free in the next segment
+     */
+    private void switchSegment(int reserve) throws IOException {
+        MappedByteBuffer next = nextSegment;
+        long number = nextSegmentPath != null ? segmentNumber(nextSegmentPath) : 0;
+        if (next == null || next.capacity() < reserve) {
+            next = null;
+            nextSegment = null;
+            if (nextSegmentPath != null) {
+                Files.deleteIfExists(nextSegmentPath);
+            }
+            number = reserveSegmentNumbers();
+            next = mapSegment(number, Math.max(segmentSize, reserve));
+        }
+        nextSegment = null;
+        nextSegmentPath = null;
+        // The full segment is no longer referenced once replaced, so its mapping can go when the checkpoint
+        // deletes it; the background task must not capture it
+        segment = next;
+        long checkpoint = number - 1;
+        roller.execute(() -> {
+            writeCheckpoint(checkpoint);
+            prepareNextSegment();
+        });
+    }
+
+    /**
+     * Hands out the numbers of a segment and of the checkpoint before it.
+     * Called while holding the lock.
+     *
+     * @return the number of the segment, the checkpoint is numbered one lower
+     */
+    private long reserveSegmentNumbers() {
+        segmentNumber += 2;
+        return segmentNumber;
+    }
+
+    /**
+     * Maps the segment that appending switches to when the current one is full. Runs on the background thread.
+     */
+    private void prepareNextSegment() {
+        long number;
+        lock.lock();
+        try {
+            if (nextSegment != null) {
+                return;
+            }
+            number = reserveSegmentNumbers();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            MappedByteBuffer next = mapSegment(number, segmentSize);
+            lock.lock();
+            try {
+                // Unless appending has mapped a segment of its own in the meantime, which is numbered higher
+                if (segmentNumber == number && nextSegment == null) {
+                    nextSegment = next;
+                    nextSegmentPath = segmentPath(number);
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            next = null;
+            Files.deleteIfExists(segmentPath(number));
+        } catch (IOException e) {
+            log.error("Cannot prepare the next live game journal segment", e);
+        }
+    }
+
+    /**
+     * Writes the latest state of every live game to the checkpoint with the given number, then deletes the
+     * checkpoints and segments before it, none of which is referenced any more. Runs on the background thread.
+     */
+    private void writeCheckpoint(long number) {
+        List<byte[]> records = new ArrayList<>(latest.values());
+        ByteBuffer buffer = ByteBuffer.allocate((int) checkpointSize(records));
+        for (byte[] record : records) {
+            put(buffer, record);
+        }
+        buffer.flip();
+        try {
+            try (FileChannel channel = FileChannel.open(segmentPath(number), StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+            for (Path path : listSegments()) {
+                if (segmentNumber(path) < number) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Cannot write the live game journal checkpoint {}", number, e);
+        }
+    }
+
+    private static long checkpointSize(Collection<byte[]> records) {
+        long size = 0;
+        for (byte[] record : records) {
+            size += HEADER_BYTES + record.length;
+        }
+        return size;
+    }
+
+    private MappedByteBuffer mapSegment(long number, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(number), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(SEGMENT_PREFIX + number + SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Encodes the state of a game, with the time played so far as of the given time.
+     */
+    static byte[] encode(TicTacToe game, long now) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(STATE);
+            out.writeUTF(game.getGameId());
+            out.writeUTF(game.getVariant().name());
+            writeString(out, game.getPlayer1());
+            writeString(out, game.getPlayer2());
+            writeString(out, game.getTurn());
+            writeString(out, game.getWinner());
+            writeString(out, game.getGameState() != null ? game.getGameState().name() : null);
+            writeString(out, game.getTimedOutPlayer());
+            out.writeBoolean(game.isTimeout());
+            out.writeLong(game.getStartTime() != null ? game.getStartTime().getTime() : -1);
+            out.writeLong(game.getLastMoveTime() != null ? game.getLastMoveTime().getTime() : -1);
+            out.writeLong(game.getCurrentPlayerMoveStartTime());
+            out.writeLong(now - game.getTotalGameStartTime());
+            out.writeLong(game.getSequence());
+            out.writeInt(game.getRound());
+            out.writeInt(game.getPlayer1Rating());
+            out.writeInt(game.getPlayer2Rating());
+            byte[] board = BoardCodec.encode(game.getBoard());
+            out.writeShort(board.length);
+            out.write(board);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Decodes the state of a game, restarting its game clock at the given time with the time played so far.
+     */
+    static TicTacToe decode(byte[] record, long now) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+            in.readByte();
+            TicTacToe game = new TicTacToe();
+            game.setGameId(in.readUTF());
+            game.setVariant(GameVariant.valueOf(in.readUTF()));
+            game.setPlayer1(readString(in));
+            game.setPlayer2(readString(in));
+            game.setTurn(readString(in));
+            game.setWinner(readString(in));
+            String gameState = readString(in);
+            game.setGameState(gameState != null ? GameState.valueOf(gameState) : null);
+            game.setTimedOutPlayer(readString(in));
+            game.setTimeout(in.readBoolean());
+            long startTime = in.readLong();
+            game.setStartTime(startTime >= 0 ? new Date(startTime) : null);
+            long lastMoveTime = in.readLong();
+            game.setLastMoveTime(lastMoveTime >= 0 ? new Date(lastMoveTime) : null);
+            game.setCurrentPlayerMoveStartTime(in.readLong());
+            game.setTotalGameStartTime(now - in.readLong());
+            game.setSequence(in.readLong());
+            game.setRound(in.readInt());
+            game.setPlayer1Rating(in.readInt());
+            game.setPlayer2Rating(in.readInt());
+            byte[] board = new byte[in.readUnsignedShort()];
+            in.readFully(board);
+            game.setBoard(BoardCodec.decode(board));
+            return game;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] encodeRemoval(String gameId) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(REMOVED);
+            out.writeUTF(gameId);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.tictactoe.service;
+
+import com.example.tictactoe.enumeration.GameState;
+import com.example.tictactoe.model.GameMove;
+import com.example.tictactoe.model.TicTacToe;
+import com.example.tictactoe.repository.GameMoveRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Append-only journal of the moves of all games, keyed by game ID and sequence number.
+ * <p>
+ * Moves are queued in a {@link WriteBehindQueue} shared by all games and appended with JDBC batch inserts,
+ * so recording a move costs an enqueue instead of a database round-trip. Any game can be rebuilt from the
+ * journal with {@link #replay(String, Long)}, e.g. for post-mortems of disputed games.
+ */
+@Service
+public class MoveJournalService {
+    private static final String INSERT_MOVE = "INSERT INTO game_move (game_id, round, seq, player, opponent, cell, "
+            + "mark, move_time, variant) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final GameMoveRepository gameMoveRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final WriteBehindQueue<GameMove> queue;
+
+    @Autowired
+    public MoveJournalService(GameMoveRepository gameMoveRepository, JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${tictactoe.journal.capacity:50000}") int capacity,
+                              @Value("${tictactoe.journal.batch-size:500}") int batchSize,
+                              @Value("${tictactoe.journal.flush-interval-ms:100}") long flushIntervalMs,
+                              @Value("${tictactoe.journal.max-attempts:5}") int maxAttempts,
+                              @Value("${tictactoe.journal.offer-timeout-ms:20}") long offerTimeoutMs) {
+        this.gameMoveRepository = gameMoveRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new WriteBehindQueue<>("move-journal", capacity, batchSize, flushIntervalMs, maxAttempts,
+                offerTimeoutMs, this::insertMoves);
+    }
+
+    /**
+     * Records the change just made to a game. Must be called while holding the game's lock,
+     * right after the move was made or the turn was passed.
+     *
+     * @param game   the game
+     * @param player the player who moved, or who ran out of time
+     * @param cell   the cell of the move, or {@link GameMove#PASS}
+     */
+    public void record(TicTacToe game, String player, int cell) {
+        record(new GameMove(game, player, cell));
+    }
+
+    /**
+     * Records a journal entry created while holding the game's lock. Adding may block while the queue is full,
+     * so callers on virtual threads should do it after releasing the lock.
+     *
+     * @param move the entry, see {@link GameMove#GameMove(TicTacToe, String, int)}
+     */
+    public void record(GameMove move) {
+        queue.add(move);
+    }
+
+    /**
+     * Rebuilds a game from the journal. Only the board the game was on at the given point is replayed,
+     * moves on boards that were reset when a player left are skipped.
+     * Moves of live games appear in the journal once the queue has flushed them.
+     *
+     * @param gameId       the ID of the game
+     * @param upToSequence the sequence number of the last move to replay, or null to replay all moves
+     * @return the rebuilt game, or null if the journal has no moves of the game
+     */
+    public TicTacToe replay(String gameId, Long upToSequence) {
+        List<GameMove> moves = gameMoveRepository.findByGameIdOrderBySequenceAsc(gameId).stream()
+                .filter(move -> upToSequence == null || move.getSequence() <= upToSequence)
+                .toList();
+        if (moves.isEmpty()) {
+            return null;
+        }
+        int round = moves.get(moves.size() - 1).getRound();
+        moves = moves.stream().filter(move -> move.getRound() == round).toList();
+
+        GameMove first = moves.get(0);
+        boolean firstIsX = "X".equals(first.getMark());
+        TicTacToe game = firstIsX ? new TicTacToe(gameId, first.getPlayer(), first.getOpponent(), first.getVariant())
+                : new TicTacToe(gameId, first.getOpponent(), first.getPlayer(), first.getVariant());
+        game.setGameState(GameState.PLAYER1_TURN);
+        for (GameMove move : moves) {
+            if (move.getCell() == GameMove.PASS) {
+                game.passTurn();
+                game.updateGameState();
+            } else {
+                game.makeMove(move.getPlayer(), move.getCell());
+            }
+            game.setSequence(move.getSequence());
+            game.setLastMoveTime(move.getMoveTime());
+        }
+        return game;
+    }
+
+    public WriteBehindQueue<GameMove> getQueue() {
+        return queue;
+    }
+
+    private void insertMoves(List<GameMove> moves) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_MOVE, moves, moves.size(),
+                (statement, move) -> {
+                    statement.setString(1, move.getGameId());
+                    statement.setInt(2, move.getRound());
+                    statement.setLong(3, move.getSequence());
+                    statement.setString(4, move.getPlayer());
+                    statement.setString(5, move.getOpponent());
+                    statement.setInt(6, move.getCell());
+                    statement.setString(7, move.getMark());
+                    statement.setTimestamp(8, new Timestamp(move.getMoveTime().getTime()));
+                    statement.setString(9, move.getVariant().name());
+                }));
+    }
+
+    /**
+     * Writes all queued moves before the application shuts down.
+     */
+    @PreDestroy
+    public void flush() {
+        queue.close();
+    }
+}
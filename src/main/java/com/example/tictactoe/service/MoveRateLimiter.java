@@ -0,0 +1,144 @@
+package com.example.tictactoe.service;
+
+import com.example.tictactoe.cluster.ClusterService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the rate of move messages per client session with a token bucket.
+ * <p>
+ * Installed on the client inbound channel, so moves over the limit are dropped on the thread that received them,
+ * before they are queued for the {@code @MessageMapping} methods. A flooding client then only costs a header
+ * lookup per message and can't delay the moves of other games. Each session may send a burst of moves and then
+ * as many moves per second as the bucket refills. Messages forwarded by other nodes of a cluster were limited on
+ * the node the client is connected to and are let through.
+ * <p>
+ * Requests for a resync are limited the same way with a bucket of their own, since each one makes the server send
+ * the full state of a game to all of its subscribers.
+ */
+@Service
+public class MoveRateLimiter implements ChannelInterceptor {
+    public static final String MOVE_DESTINATION = "/app/game.move";
+    public static final String SYNC_DESTINATION = "/app/game.sync";
+
+    private final Limit moves;
+    private final Limit syncs;
+    private final AtomicLong limitedCount = new AtomicLong();
+
+    public MoveRateLimiter(double movesPerSecond, int burst) {
+        this(movesPerSecond, burst, 1, 3);
+    }
+
+    @Autowired
+    public MoveRateLimiter(@Value("${tictactoe.rate-limit.moves-per-second:5}") double movesPerSecond,
+                           @Value("${tictactoe.rate-limit.burst:10}") int burst,
+                           @Value("${tictactoe.rate-limit.syncs-per-second:1}") double syncsPerSecond,
+                           @Value("${tictactoe.rate-limit.sync-burst:3}") int syncBurst) {
+        this.moves = new Limit(movesPerSecond, burst);
+        this.syncs = new Limit(syncsPerSecond, syncBurst);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        String sessionId = accessor.getSessionId();
+        if (sessionId == null) {
+            return message;
+        }
+        if (accessor.getMessageType() == SimpMessageType.DISCONNECT) {
+            moves.buckets.remove(sessionId);
+            syncs.buckets.remove(sessionId);
+            return message;
+        }
+        if (accessor.getMessageType() != SimpMessageType.MESSAGE
+                || accessor.getHeader(ClusterService.FORWARDED_FROM) != null) {
+            return message;
+        }
+        if (MOVE_DESTINATION.equals(accessor.getDestination())) {
+            return tryAcquire(sessionId, System.nanoTime()) ? message : null;
+        }
+        if (SYNC_DESTINATION.equals(accessor.getDestination())) {
+            return syncs.tryAcquire(sessionId, System.nanoTime()) ? message : null;
+        }
+        return message;
+    }
+
+    /**
+     * Takes a token from the move bucket of a session.
+     *
+     * @param sessionId the ID of the client session
+     * @param now       the current time of {@link System#nanoTime()}
+     * @return true if the session may send the move, false if it is over the limit
+     */
+    boolean tryAcquire(String sessionId, long now) {
+        if (moves.tryAcquire(sessionId, now)) {
+            return true;
+        }
+        limitedCount.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Returns the number of moves dropped because their session was over the limit.
+     */
+    public long getLimitedCount() {
+        return limitedCount.get();
+    }
+
+    /**
+     * Returns the number of sessions that sent moves and are still connected.
+     */
+    public int getSessionCount() {
+        return moves.buckets.size();
+    }
+
+    /**
+     * The rate and burst of one kind of message, with a bucket per session.
+     */
+    private static final class Limit {
+        private final double tokensPerNano;
+        private final double burst;
+        private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+        private Limit(double perSecond, int burst) {
+            this.tokensPerNano = perSecond / 1e9;
+            this.burst = burst;
+        }
+
+        boolean tryAcquire(String sessionId, long now) {
+            return buckets.computeIfAbsent(sessionId, id -> new TokenBucket(this, burst, now)).tryAcquire(now);
+        }
+    }
+
+    private static final class TokenBucket {
+        private final Limit limit;
+        private double tokens;
+        private long refilledAt;
+
+        private TokenBucket(Limit limit, double tokens, long now) {
+            this.limit = limit;
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+
+        synchronized boolean tryAcquire(long now) {
+            tokens = Math.min(limit.burst, tokens + (now - refilledAt) * limit.tokensPerNano);
+            refilledAt = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.tictactoe.service;
+
+import com.example.tictactoe.cluster.GameEventPublisher;
+import com.example.tictactoe.manager.TicTacToeManager;
+import com.example.tictactoe.model.TicTacToe;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends the state of watched games to their spectators, separately from the messages to the players.
+ * <p>
+ * Spectators subscribe to {@code /topic/spectate.{gameId}} and renew a lease on the game while they watch.
+ * Changes to a watched game only mark it as changed; a single background thread sends the latest snapshot of
+ * each changed game once per flush interval. However many moves are made in between, spectators get one message
+ * per interval, and the players' moves never wait for the spectators' messages to be built or sent.
+ * Only game over messages are sent right away, since the game is gone after them.
+ */
+@Service
+public class SpectatorService {
+    private static final Logger log = LoggerFactory.getLogger(SpectatorService.class);
+
+    private final TicTacToeManager ticTacToeManager;
+    private final GameEventPublisher gameEventPublisher;
+    private final long flushIntervalMs;
+    private final long leaseMs;
+
+    /**
+     * Map of watched games to the time their lease ends, in milliseconds since the epoch.
+     */
+    private final Map<String, Long> leases = new ConcurrentHashMap<>();
+
+    /**
+     * IDs of watched games that changed since the last flush.
+     */
+    private final Set<String> changed = ConcurrentHashMap.newKeySet();
+
+    private final ScheduledExecutorService flusher;
+
+    @Autowired
+    public SpectatorService(TicTacToeManager ticTacToeManager, GameEventPublisher gameEventPublisher,
+                            @Value("${tictactoe.spectator.flush-interval-ms:250}") long flushIntervalMs,
+                            @Value("${tictactoe.spectator.lease-ms:60000}") long leaseMs) {
+        this.ticTacToeManager = ticTacToeManager;
+        this.gameEventPublisher = gameEventPublisher;
+        this.flushIntervalMs = flushIntervalMs;
+        this.leaseMs = leaseMs;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "spectator-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.shutdownNow();
+    }
+
+    /**
+     * Returns the destination spectators of a game subscribe to.
+     *
+     * @param gameId the ID of the game
+     */
+    public static String topic(String gameId) {
+        return "/topic/spectate." + gameId;
+    }
+
+    /**
+     * Starts or renews the lease of a spectated game. The current state is sent with the next flush.
+     *
+     * @param gameId the ID of a game on this node
+     */
+    public void watch(String gameId) {
+        leases.put(gameId, System.currentTimeMillis() + leaseMs);
+        changed.add(gameId);
+    }
+
+    /**
+     * Notes that a game changed. Does nothing unless the game is watched.
+     *
+     * @param gameId the ID of the game
+     */
+    public void changed(String gameId) {
+        if (leases.containsKey(gameId)) {
+            changed.add(gameId);
+        }
+    }
+
+    /**
+     * Sends the final state of a watched game to its spectators and ends its lease.
+     * The caller must hold the game's lock.
+     *
+     * @param game the finished game
+     */
+    public void finished(TicTacToe game) {
+        String gameId = game.getGameId();
+        if (leases.remove(gameId) != null) {
+            changed.remove(gameId);
+            gameEventPublisher.publishSnapshot(topic(gameId), game, "game.gameOver");
+        }
+    }
+
+    /**
+     * Returns true if the game has spectators.
+     *
+     * @param gameId the ID of the game
+     */
+    public boolean isWatched(String gameId) {
+        return leases.containsKey(gameId);
+    }
+
+    /**
+     * Returns the number of games with spectators.
+     */
+    public int getWatchedGameCount() {
+        return leases.size();
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Sending game states to spectators failed", e);
+        }
+    }
+
+    /**
+     * Sends the current state of every watched game that changed since the last flush.
+     */
+    void flush() {
+        long now = System.currentTimeMillis();
+        for (String gameId : changed) {
+            changed.remove(gameId);
+            Long lease = leases.get(gameId);
+            if (lease == null) {
+                continue;
+            }
+            TicTacToe game = ticTacToeManager.getGame(gameId);
+            if (lease < now || game == null) {
+                leases.remove(gameId, lease);
+                continue;
+            }
+            // Only the encoding needs the game's lock, the fan-out to the spectators runs after releasing it
+            byte[] snapshot = null;
+            synchronized (game) {
+                if (ticTacToeManager.getGame(gameId) == game) {
+                    snapshot = gameEventPublisher.encodeSnapshot(game, "game.spectate");
+                }
+            }
+            if (snapshot != null) {
+                gameEventPublisher.publishEncoded(topic(gameId), snapshot);
+            }
+        }
+    }
+}
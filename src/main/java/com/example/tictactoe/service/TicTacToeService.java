@@ -1,12 +1,29 @@
 package com.example.tictactoe.service;
 
 import com.example.tictactoe.model.TicTacToe;
+import com.example.tictactoe.model.dto.GameHistoryPage;
+import com.example.tictactoe.repository.GameHistoryView;
 import com.example.tictactoe.repository.TicTacToeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
 @Service
 public class TicTacToeService {
+    /**
+     * Start of the first history page, after any saved game: 9999-12-31 23:59:59 UTC.
+     */
+    private static final long END_OF_TIME = 253402300799000L;
+    private static final Comparator<GameHistoryView> NEWEST_FIRST = Comparator
+            .comparing(GameHistoryView::getLastMoveTime)
+            .thenComparing(GameHistoryView::getId)
+            .reversed();
+
     private final TicTacToeRepository gameRepository;
 
     @Autowired
@@ -21,4 +38,45 @@ public class TicTacToeService {
     public TicTacToe findGameById(Long gameId) {
         return gameRepository.findById(gameId).orElse(null);
     }
+
+    /**
+     * Returns a page of saved games, newest first, without their boards.
+     * <p>
+     * A player's games are read with one query per seat, each from its own index, and merged, since a query for
+     * either seat could not seek in one index.
+     *
+     * @param player the player whose games to list, or null for all games
+     * @param before the {@link GameHistoryPage#getNext() cursor} of the previous page, or null for the first page
+     * @param limit  the maximum number of games on the page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public GameHistoryPage getHistory(String player, String before, int limit) {
+        Date time = new Date(END_OF_TIME);
+        long id = Long.MAX_VALUE;
+        if (before != null) {
+            int separator = before.indexOf('_');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Malformed cursor: " + before);
+            }
+            time = new Date(Long.parseLong(before.substring(0, separator)));
+            id = Long.parseLong(before.substring(separator + 1));
+        }
+
+        // One more than asked for tells whether there is a next page
+        Limit fetch = Limit.of(limit + 1);
+        List<GameHistoryView> games;
+        if (player == null) {
+            games = gameRepository.findHistoryBefore(time, id, fetch);
+        } else {
+            games = new ArrayList<>(gameRepository.findHistoryAsPlayer1Before(player, time, id, fetch));
+            games.addAll(gameRepository.findHistoryAsPlayer2Before(player, time, id, fetch));
+            games.sort(NEWEST_FIRST);
+        }
+        if (games.size() <= limit) {
+            return new GameHistoryPage(games, null);
+        }
+        List<GameHistoryView> page = List.copyOf(games.subList(0, limit));
+        GameHistoryView last = page.get(limit - 1);
+        return new GameHistoryPage(page, last.getLastMoveTime().getTime() + "_" + last.getId());
+    }
 }
@@ -0,0 +1,198 @@
+package com.example.tictactoe.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Bounded queue that hands items to a writer in batches on a dedicated background thread.
+ * <p>
+ * Producers only pay for an enqueue. When the queue is full, {@link #add(Object)} waits for a short time
+ * and then writes the item on the caller's thread, so a slow database slows producers down instead of
+ * dropping data or growing the heap. A failed batch is retried with exponential backoff and dropped
+ * after the last attempt. {@link #close()} stops the thread and writes everything still queued. Adds hold the
+ * read side of a lock that close takes exclusively, so an item is either queued before the final drain or
+ * written on the caller's thread, never left behind in the queue.
+ *
+ * @param <T> the type of the queued items
+ */
+public class WriteBehindQueue<T> implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindQueue.class);
+    private static final long RETRY_BACKOFF_MS = 100;
+
+    private final String name;
+    private final BlockingQueue<T> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final int maxAttempts;
+    private final long offerTimeoutMs;
+    private final Consumer<List<T>> writer;
+    private final Thread flusher;
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private volatile boolean running = true;
+
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong callerWriteCount = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong flushNanos = new AtomicLong();
+
+    /**
+     * Creates the queue and starts its flusher thread.
+     *
+     * @param name            the name of the queue, used for the thread name and in log messages
+     * @param capacity        the maximum number of queued items
+     * @param batchSize       the maximum number of items handed to the writer at once
+     * @param flushIntervalMs the maximum time the flusher waits for the first item of a batch
+     * @param maxAttempts     the number of times a batch is written before it is dropped
+     * @param offerTimeoutMs  the time {@link #add(Object)} waits for space before writing on the caller's thread
+     * @param writer          writes a batch, throwing an exception if it failed
+     */
+    public WriteBehindQueue(String name, int capacity, int batchSize, long flushIntervalMs, int maxAttempts,
+                            long offerTimeoutMs, Consumer<List<T>> writer) {
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxAttempts = maxAttempts;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.writer = writer;
+        this.flusher = new Thread(this::run, name + "-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Queues an item for writing. If the queue stays full for the offer timeout, or the queue is closed,
+     * the item is written on the caller's thread.
+     *
+     * @param item the item to write
+     */
+    public void add(T item) {
+        closeLock.readLock().lock();
+        try {
+            if (running && queue.offer(item, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        callerWriteCount.incrementAndGet();
+        write(List.of(item));
+    }
+
+    private void run() {
+        List<T> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                T first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                // Only the running flag stops the flusher
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<T> batch) {
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            long start = System.nanoTime();
+            try {
+                writer.accept(batch);
+                flushNanos.addAndGet(System.nanoTime() - start);
+                flushCount.incrementAndGet();
+                writtenCount.addAndGet(batch.size());
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == maxAttempts) {
+                    failedCount.addAndGet(batch.size());
+                    log.error("{}: dropping {} items after {} failed attempts", name, batch.size(), attempt, e);
+                    return;
+                }
+                log.warn("{}: writing {} items failed, attempt {} of {}", name, batch.size(), attempt, maxAttempts, e);
+                try {
+                    Thread.sleep(RETRY_BACKOFF_MS << (attempt - 1));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of items waiting to be written.
+     */
+    public int getDepth() {
+        return queue.size();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * Returns the number of items written on the caller's thread because the queue was full.
+     */
+    public long getCallerWriteCount() {
+        return callerWriteCount.get();
+    }
+
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    /**
+     * Returns the total time spent in successful writes, in nanoseconds.
+     */
+    public long getFlushNanos() {
+        return flushNanos.get();
+    }
+
+    /**
+     * Stops the flusher thread and writes all items that are still queued.
+     */
+    @Override
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<T> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+}
@@ -54,13 +54,29 @@ const messagesTypes = {
         });
     },
     "game.move": (message) => {
-        updateGame(message);
+        applyMove(message);
         updateTimers();
     },
+    "game.sync": (message) => {
+        if (game === null || game.gameId !== message.gameId || message.sequence < game.sequence) return;
+        updateGame(message);
+    },
     "game.left": (message) => {
         updateGame(message);
         if (message.winner) showWinner(message.winner);
     },
+    "game.spectate": (message) => {
+        if (game !== null && message.sequence < game.sequence) return;
+        updateGame(message);
+    },
+    "game.expired": (message) => {
+        if (game === null || game.gameId !== message.gameId) return;
+        updateGame(message);
+        if (confirm("Nobody joined your game in time. Look for another opponent?")) {
+            game = null;
+            loadGame();
+        }
+    },
     "game.timeout": (message) => {
         updateGame(message);
         document.getElementById("turn").innerHTML = game.turn;
@@ -95,9 +111,48 @@ const messageToGame = (message) => {
         winner: message.winner,
         lastMoveTime: new Date(message.lastMoveTime),
         startTime: new Date(message.startTime),
+        sequence: message.sequence,
+        winLength: message.winLength || 5,
     }
 }
 
+/**
+ * Applies a move received from the server to the current game, without redrawing the whole board.
+ * Moves that were already applied are ignored. If a move was missed, a full snapshot is requested instead.
+ * @param {Object} message - The move message received, with the cell, mark and sequence number of the move.
+ */
+const applyMove = (message) => {
+    if (game === null || game.gameId !== message.gameId || message.sequence <= game.sequence) return;
+    if (message.sequence !== game.sequence + 1) {
+        requestSync();
+        return;
+    }
+
+    const size = game.board.length;
+    const row = Math.floor(message.cell / size);
+    const col = message.cell % size;
+    game.board[row][col] = message.mark;
+    updateCell(row, col, message.cell, message.mark);
+
+    game.sequence = message.sequence;
+    game.turn = message.turn;
+    game.gameState = message.gameState;
+    game.winner = message.winner;
+    game.lastMoveTime = new Date(message.lastMoveTime);
+    game.timeout = false;
+    updateGameInfo();
+}
+
+/**
+ * Asks the server to send the full state of the current game.
+ */
+const requestSync = () => {
+    sendMessage({
+        type: "game.sync",
+        gameId: game.gameId
+    });
+}
+
 
 /**
  * Displays a success message with the name of the winning player.
@@ -109,8 +164,8 @@ const showWinner = (winner) => {
         toastr.success("Game over! It's a tie!");
     } else {
         toastr.success(`The winner is ${getPlayerName(winner)}!`);
-        const winningPositions = getWinnerPositions(game.board);
-        if (winningPositions.length === 5) {
+        const winningPositions = getWinnerPositions(game.board, game.winLength);
+        if (winningPositions.length === game.winLength) {
             winningPositions.forEach(position => {
                 const row = Math.floor(position / game.board.length);
                 const cell = position % game.board.length;
@@ -131,59 +186,36 @@ const getPlayerName = (mark) => {
 
 /**
  * Get the winner positions from the board.
+ * @param {Array} board - The board.
+ * @param {Number} winLength - The number of stones in a winning line.
  */
-const getWinnerPositions = (board) => {
-    const winnerPositions = [];
-
-    // Check horizontally
-    for (let i = 0; i < board.length; i++) {
-        for (let j = 0; j <= board.length - 5; j++) {
-            if (board[i][j] !== ' ' && board[i][j] === board[i][j + 1] && board[i][j + 1] === board[i][j + 2] &&
-                board[i][j + 2] === board[i][j + 3] && board[i][j + 3] === board[i][j + 4]) {
-                for (let k = 0; k < 5; k++) {
-                    winnerPositions.push(i * board.length + (j + k));
-                }
-            }
-        }
-    }
-
-    // Check vertically
-    for (let i = 0; i < board.length; i++) {
-        for (let j = 0; j <= board.length - 5; j++) {
-            if (board[j][i] !== ' ' && board[j][i] === board[j + 1][i] && board[j + 1][i] === board[j + 2][i] &&
-                board[j + 2][i] === board[j + 3][i] && board[j + 3][i] === board[j + 4][i]) {
-                for (let k = 0; k < 5; k++) {
-                    winnerPositions.push((j + k) * board.length + i);
-                }
-            }
-        }
-    }
-
-    // Check diagonally (top-left to bottom-right)
-    for (let i = 0; i <= board.length - 5; i++) {
-        for (let j = 0; j <= board.length - 5; j++) {
-            if (board[i][j] !== ' ' && board[i][j] === board[i + 1][j + 1] && board[i + 1][j + 1] === board[i + 2][j + 2] &&
-                board[i + 2][j + 2] === board[i + 3][j + 3] && board[i + 3][j + 3] === board[i + 4][j + 4]) {
-                for (let k = 0; k < 5; k++) {
-                    winnerPositions.push((i + k) * board.length + (j + k));
-                }
-            }
-        }
-    }
-
-    // Check diagonally (top-right to bottom-left)
-    for (let i = 0; i <= board.length - 5; i++) {
-        for (let j = board.length - 1; j >= 4; j--) {
-            if (board[i][j] !== ' ' && board[i][j] === board[i + 1][j - 1] && board[i + 1][j - 1] === board[i + 2][j - 2] &&
-                board[i + 2][j - 2] === board[i + 3][j - 3] && board[i + 3][j - 3] === board[i + 4][j - 4]) {
-                for (let k = 0; k < 5; k++) {
-                    winnerPositions.push((i + k) * board.length + (j - k));
+const getWinnerPositions = (board, winLength) => {
+    const size = board.length;
+    const directions = [[0, 1], [1, 0], [1, 1], [1, -1]];
+    for (let row = 0; row < size; row++) {
+        for (let col = 0; col < size; col++) {
+            const mark = board[row][col];
+            if (mark === ' ') continue;
+            for (const [rowStep, colStep] of directions) {
+                const positions = [];
+                for (let k = 0; k < winLength; k++) {
+                    const r = row + k * rowStep;
+                    const c = col + k * colStep;
+                    if (r < 0 || r >= size || c < 0 || c >= size || board[r][c] !== mark) break;
+                    positions.push(r * size + c);
                 }
+                if (positions.length === winLength) return positions;
             }
         }
     }
+    return [];
+}
 
-    return winnerPositions;
+/**
+ * Returns the variant requested with "?variant=CLASSIC" (or GOMOKU_15, GOMOKU_19, GOMOKU), or null for the default board.
+ */
+const getVariant = () => {
+    return new URLSearchParams(window.location.search).get("variant");
 }
 
 /**
@@ -191,20 +223,30 @@ const getWinnerPositions = (board) => {
  */
 const joinGame = () => {
     const playerName = prompt("Enter your name:");
+    const bot = confirm("Play against the computer if nobody is waiting?");
     localStorage.setItem("playerName", playerName);
+    localStorage.setItem("bot", bot);
     sendMessage({
         type: "game.join",
-        player: playerName
+        player: playerName,
+        bot: bot,
+        variant: getVariant()
     });
 }
 
 /**
- * Connects the STOMP client to the server and subscribes to the "/topic/game.state" topic.
+ * Connects the STOMP client to the server and subscribes to the "/topic/game.state" topic,
+ * or to the spectator topic of a game when the page was opened with "?watch=<gameId>".
  */
 const connect = () => {
     const socket = new SockJS('/ws');
     stompClient = Stomp.over(socket);
     stompClient.connect({}, function (frame) {
+        const watchedGameId = new URLSearchParams(window.location.search).get("watch");
+        if (watchedGameId) {
+            spectate(watchedGameId);
+            return;
+        }
         stompClient.subscribe('/topic/game.state', function (message) {
             handleMessage(JSON.parse(message.body));
             updateTimers();
@@ -213,6 +255,23 @@ const connect = () => {
     });
 }
 
+/**
+ * Follows a game without playing: subscribes to its spectator topic and renews the spectator lease
+ * on the server while the page is open.
+ * @param {String} gameId - The ID of the game to watch.
+ */
+const spectate = (gameId) => {
+    stompClient.subscribe(`/topic/spectate.${gameId}`, function (message) {
+        handleMessage(JSON.parse(message.body));
+    });
+    const watch = () => sendMessage({
+        type: "game.spectate",
+        gameId: gameId
+    });
+    watch();
+    setInterval(watch, 30000);
+}
+
 /**
  * Attempts to load a game by joining with the player's previously stored name, or prompts the player to enter their name if no name is stored.
  */
@@ -221,7 +280,9 @@ const loadGame = () => {
     if (playerName) {
         sendMessage({
             type: "game.join",
-            player: playerName
+            player: playerName,
+            bot: localStorage.getItem("bot") === "true",
+            variant: getVariant()
         });
     } else {
         joinGame();
@@ -235,9 +296,15 @@ const loadGame = () => {
 const updateGame = (message) => {
     game = messageToGame(message);
     updateBoard(message.board);
+    updateGameInfo();
+}
 
-    const lastMoveTime = new Date(message.lastMoveTime);
-    const startTime = new Date(message.startTime);
+/**
+ * Updates the players, turn, winner and times displayed for the current game.
+ */
+const updateGameInfo = () => {
+    const lastMoveTime = game.lastMoveTime;
+    const startTime = game.startTime;
 
     // Update player1
     const player1Element = document.getElementById("player1");
@@ -307,7 +374,7 @@ const updateTimers = () => {
  * Sends a message to the server using the {sendMessage} function. and switches player turn based on that.
  */
 const switchTurn = () => {
-    if (game !== null && !game.timeout) {
+    if (game !== null && player !== null && !game.timeout) {
         game.timeout = true;
 
         // Notify the server about the turn switch
@@ -354,12 +421,42 @@ const formatTime = (time) => {
  * @param {Array} board - The board received from the server.
  */
 const updateBoard = (board) => {
+    resizeBoard(board.length);
     let counter = 0;
     board.forEach((row, rowIndex) => {
         row.forEach((cell, cellIndex) => {
-            const cellElement = document.querySelector(`.row-${rowIndex} .cell-${cellIndex}`);
-            cellElement.innerHTML = cell === ' ' ? '<button onclick="makeMove(' + counter + ')"> </button>' : `<span class="cell-item">${cell}</span>`;
+            updateCell(rowIndex, cellIndex, counter, cell);
             counter++;
         });
     });
 }
+
+/**
+ * Rebuilds the rows and cells of the game board if the board of the current variant has another size.
+ * @param {Number} size - The number of rows and columns.
+ */
+const resizeBoard = (size) => {
+    const boardElement = document.getElementById("board");
+    if (boardElement.querySelectorAll(".row").length === size) return;
+    let html = '';
+    for (let row = 0; row < size; row++) {
+        html += `<div class="row row-${row}">`;
+        for (let col = 0; col < size; col++) {
+            html += `<div class="cell cell-${col}"></div>`;
+        }
+        html += '</div>';
+    }
+    boardElement.innerHTML = html;
+}
+
+/**
+ * Updates a single cell of the game board.
+ * @param {Number} row - The row of the cell.
+ * @param {Number} col - The column of the cell.
+ * @param {Number} index - The index of the cell, sent to the server when the cell is clicked.
+ * @param {String} cell - The mark in the cell, or ' ' if it is empty.
+ */
+const updateCell = (row, col, index, cell) => {
+    const cellElement = document.querySelector(`.row-${row} .cell-${col}`);
+    cellElement.innerHTML = cell === ' ' ? '<button onclick="makeMove(' + index + ')"> </button>' : `<span class="cell-item">${cell}</span>`;
+}
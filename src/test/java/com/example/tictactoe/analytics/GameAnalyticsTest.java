@@ -0,0 +1,53 @@
+package com.example.tictactoe.analytics;
+
+import com.example.tictactoe.enumeration.GameVariant;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GameAnalyticsTest {
+    private static String line(String winner, String moves, int stones) {
+        return "{\"gameId\":\"g\",\"variant\":\"GOMOKU\",\"player1\":\"alice\",\"player2\":\"bob\",\"winner\":\""
+                + winner + "\",\"stones\":" + stones + ",\"moves\":[" + moves + "]}";
+    }
+
+    @Test
+    void computesWinRateLengthAndOpenings() {
+        GameAnalytics.Report report = GameAnalytics.analyze(List.of(
+                line("alice", "210,211,-1,212,190,213,170,214", 8),
+                line("bob", "210,211,230,231,250", 5),
+                line("TIE", "0,-1,1", 2),
+                line("alice", "", 9),
+                "").stream());
+
+        assertEquals(4, report.getGames());
+        assertEquals(2, report.getFirstPlayerWins());
+        assertEquals(1, report.getSecondPlayerWins());
+        assertEquals(1, report.getTies());
+        assertEquals(0.5, report.getFirstPlayerWinRate());
+        // Passes don't count, games without moves count their stones
+        assertEquals((7 + 5 + 2 + 9) / 4.0, report.getAverageGameLength());
+        assertEquals(Map.of("210,211", 2L, "0,1", 1L), report.getOpenings().get(GameVariant.GOMOKU));
+    }
+
+    @Test
+    void parallelRunMatchesSequentialRun() {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            String winner = i % 3 == 0 ? "alice" : i % 3 == 1 ? "bob" : "TIE";
+            lines.add(line(winner, (i % 17) + "," + (i % 5) + ",42", 3));
+        }
+
+        GameAnalytics.Report sequential = GameAnalytics.analyze(lines.stream());
+        GameAnalytics.Report parallel = GameAnalytics.analyze(lines.parallelStream());
+
+        assertEquals(sequential.getGames(), parallel.getGames());
+        assertEquals(sequential.getFirstPlayerWins(), parallel.getFirstPlayerWins());
+        assertEquals(sequential.getAverageGameLength(), parallel.getAverageGameLength());
+        assertEquals(sequential.getOpenings(), parallel.getOpenings());
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.tictactoe.bot;
+
+import com.example.tictactoe.enumeration.GameVariant;
+import com.example.tictactoe.model.BitBoard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GomokuBotTest {
+    private static final int BOARD_SIZE = GameVariant.GOMOKU.getSize();
+    private static final long MOVE_TIME_NANOS = TimeUnit.MILLISECONDS.toNanos(300);
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final GomokuBot bot = new GomokuBot(pool, 16, 8, 10);
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static int cell(int row, int col) {
+        return row * BOARD_SIZE + col;
+    }
+
+    private int choose(BitBoard board, char mark) {
+        return bot.chooseMove(board, mark, System.nanoTime() + MOVE_TIME_NANOS);
+    }
+
+    @Test
+    void opensInTheCenter() {
+        BitBoard board = new BitBoard(BOARD_SIZE);
+        assertEquals(cell(BOARD_SIZE / 2, BOARD_SIZE / 2), choose(board, BitBoard.X));
+    }
+
+    @Test
+    void completesFive() {
+        BitBoard board = new BitBoard(BOARD_SIZE);
+        for (int col = 5; col < 9; col++) {
+            board.place(cell(10, col), BitBoard.O);
+            board.place(cell(12, col + 1), BitBoard.X);
+        }
+        board.place(cell(10, 4), BitBoard.X);
+        assertEquals(cell(10, 9), choose(board, BitBoard.O));
+    }
+
+    @Test
+    void blocksAFour() {
+        BitBoard board = new BitBoard(BOARD_SIZE);
+        for (int row = 3; row < 7; row++) {
+            board.place(cell(row, 3), BitBoard.X);
+        }
+        board.place(cell(2, 3), BitBoard.O);
+        board.place(cell(15, 15), BitBoard.O);
+        board.place(cell(15, 17), BitBoard.O);
+        assertEquals(cell(7, 3), choose(board, BitBoard.O));
+    }
+
+    @Test
+    void blocksAnOpenThree() {
+        BitBoard board = new BitBoard(BOARD_SIZE);
+        board.place(cell(8, 8), BitBoard.X);
+        board.place(cell(8, 9), BitBoard.X);
+        board.place(cell(8, 10), BitBoard.X);
+        board.place(cell(15, 15), BitBoard.O);
+        board.place(cell(2, 2), BitBoard.O);
+        int move = choose(board, BitBoard.O);
+        assertTrue(Set.of(cell(8, 7), cell(8, 11), cell(8, 6), cell(8, 12)).contains(move), "move " + move);
+    }
+
+    @Test
+    void manyGamesAnswerWithinTheMoveTime() {
+        List<CompletableFuture<Integer>> moves = new ArrayList<>();
+        long start = System.nanoTime();
+        long deadline = start + MOVE_TIME_NANOS;
+        for (int game = 0; game < 200; game++) {
+            BitBoard board = new BitBoard(BOARD_SIZE);
+            board.place(cell(9, 9), BitBoard.X);
+            board.place(cell(9, 10), BitBoard.O);
+            board.place(cell(10, 9 + game % 3), BitBoard.X);
+            moves.add(CompletableFuture.supplyAsync(() -> bot.chooseMove(board, BitBoard.O, deadline), pool));
+        }
+        for (CompletableFuture<Integer> move : moves) {
+            assertTrue(move.join() >= 0);
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMs < 2_000, "took " + elapsedMs + " ms");
+    }
+}
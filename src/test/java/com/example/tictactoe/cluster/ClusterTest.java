@@ -0,0 +1,204 @@
+package com.example.tictactoe.cluster;
+
+import com.example.tictactoe.TictactoeApplication;
+import com.example.tictactoe.controller.MessageController;
+import com.example.tictactoe.manager.TicTacToeManager;
+import com.example.tictactoe.model.BitBoard;
+import com.example.tictactoe.model.TicTacToe;
+import com.example.tictactoe.model.dto.JoinMessage;
+import com.example.tictactoe.model.dto.TicTacToeMessage;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Runs two nodes in one JVM, connected by an {@link InMemoryBrokerRelay}, each with its own in-memory database.
+ */
+class ClusterTest {
+    private static final InMemoryBrokerRelay relay = new InMemoryBrokerRelay();
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode("node-a");
+        nodeB = startNode("node-b");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    @Test
+    void bothNodesAgreeOnOwnersAndCreateOnlyOwnGames() {
+        ClusterService clusterA = nodeA.getBean(ClusterService.class);
+        ClusterService clusterB = nodeB.getBean(ClusterService.class);
+        for (int i = 0; i < 100; i++) {
+            String gameId = "game-" + i;
+            assertEquals(clusterA.ownerOf(gameId), clusterB.ownerOf(gameId));
+        }
+        TicTacToe game = nodeA.getBean(TicTacToeManager.class).joinGame("owner-check");
+        assertEquals("node-a", clusterB.ownerOf(game.getGameId()));
+        assertEquals("node-b", clusterA.ownerOf(nodeB.getBean(ClusterService.class).newGameId()));
+    }
+
+    @Test
+    void gamesStayWithTheirOwnerWhenNodesJoinAndLeave() {
+        ClusterService clusterA = nodeA.getBean(ClusterService.class);
+        ClusterService clusterB = nodeB.getBean(ClusterService.class);
+        List<String> gameIds = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            gameIds.add(clusterA.newGameId());
+        }
+
+        relay.join("node-c", new BrokerRelay.Listener() {
+            @Override
+            public void onPublish(String fromNodeId, String destination, byte[] payload) {
+            }
+
+            @Override
+            public void onSend(String fromNodeId, String destination, byte[] payload) {
+            }
+
+            @Override
+            public void onMembershipChange(Set<String> nodes) {
+            }
+        });
+        try {
+            for (String gameId : gameIds) {
+                assertEquals("node-a", clusterA.ownerOf(gameId));
+                assertEquals("node-a", clusterB.ownerOf(gameId));
+            }
+        } finally {
+            relay.leave("node-c");
+        }
+        for (String gameId : gameIds) {
+            assertEquals("node-a", clusterB.ownerOf(gameId));
+        }
+
+        // The games of a node that left are routed by the ring
+        String orphan = "node-c:" + UUID.randomUUID();
+        assertEquals(clusterA.ownerOf(orphan), clusterB.ownerOf(orphan));
+    }
+
+    @Test
+    void moveSentToOtherNodeIsPlayedByOwnerAndPublishedEverywhere() throws Exception {
+        MessageController controllerA = nodeA.getBean(MessageController.class);
+        controllerA.joinGame(join("alice"), sessionHeaders());
+        controllerA.joinGame(join("bob"), sessionHeaders());
+        TicTacToe game = nodeA.getBean(TicTacToeManager.class).getGameByPlayer("alice");
+        assertNull(nodeB.getBean(TicTacToeManager.class).getGame(game.getGameId()));
+
+        BlockingQueue<JsonNode> received = new LinkedBlockingQueue<>();
+        StompSession session = connect(nodeB);
+        session.subscribe("/topic/game." + game.getGameId(), collector(received));
+
+        // A sync sent to node B is answered by node A, once the subscription is active
+        MessageController controllerB = nodeB.getBean(MessageController.class);
+        TicTacToeMessage sync = new TicTacToeMessage();
+        sync.setGameId(game.getGameId());
+        JsonNode snapshot = null;
+        for (int attempt = 0; attempt < 50 && snapshot == null; attempt++) {
+            controllerB.syncGame(sync, null);
+            snapshot = received.poll(100, TimeUnit.MILLISECONDS);
+        }
+        assertNotNull(snapshot, "no snapshot from the owner");
+        assertEquals("game.sync", snapshot.path("type").asText());
+
+        TicTacToeMessage move = new TicTacToeMessage();
+        move.setGameId(game.getGameId());
+        move.setSender("alice");
+        move.setMove(42);
+        controllerB.makeMove(move, null);
+
+        // Answers to the earlier syncs may still arrive
+        JsonNode moveMessage;
+        do {
+            moveMessage = received.poll(5, TimeUnit.SECONDS);
+        } while (moveMessage != null && "game.sync".equals(moveMessage.path("type").asText()));
+        assertNotNull(moveMessage, "no move message on node B");
+        assertEquals("game.move", moveMessage.path("type").asText());
+        assertEquals(42, moveMessage.path("cell").asInt());
+        assertEquals("X", moveMessage.path("mark").asText());
+        synchronized (game) {
+            assertEquals(BitBoard.X, game.getBoard().get(42));
+        }
+        session.disconnect();
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId) {
+        return new SpringApplicationBuilder(TictactoeApplication.class)
+                .profiles("embedded")
+                .initializers(context -> context.getBeanFactory().registerSingleton("brokerRelay", relay))
+                .run("--server.port=0",
+                        "--tictactoe.cluster.node-id=" + nodeId,
+                        "--spring.datasource.url=jdbc:h2:mem:" + nodeId + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.jmx.enabled=false");
+    }
+
+    private static JoinMessage join(String player) {
+        JoinMessage message = new JoinMessage();
+        message.setType("game.join");
+        message.setPlayer(player);
+        return message;
+    }
+
+    private static SimpMessageHeaderAccessor sessionHeaders() {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create();
+        headers.setSessionAttributes(new HashMap<>());
+        return headers;
+    }
+
+    private static StompSession connect(ConfigurableApplicationContext node) throws Exception {
+        int port = ((WebServerApplicationContext) node).getWebServer().getPort();
+        WebSocketStompClient client = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        client.setMessageConverter(new MappingJackson2MessageConverter());
+        return client.connectAsync("http://localhost:" + port + "/ws", new StompSessionHandlerAdapter() {
+        }).get(10, TimeUnit.SECONDS);
+    }
+
+    private static StompFrameHandler collector(BlockingQueue<JsonNode> received) {
+        return new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return JsonNode.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add((JsonNode) payload);
+            }
+        };
+    }
+}
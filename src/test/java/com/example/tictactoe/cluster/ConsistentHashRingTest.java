@@ -0,0 +1,55 @@
+package com.example.tictactoe.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTest {
+    private static final int KEYS = 30_000;
+
+    @Test
+    void keysSpreadEvenlyOverNodes() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c"), 128);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.ownerOf(UUID.randomUUID().toString()), 1, Integer::sum);
+        }
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(count > KEYS / 3 * 0.8 && count < KEYS / 3 * 1.2, counts.toString()));
+    }
+
+    @Test
+    void addingANodeOnlyMovesKeysToIt() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), 128);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("a", "b", "c", "d"), 128);
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String key = UUID.randomUUID().toString();
+            String oldOwner = before.ownerOf(key);
+            String newOwner = after.ownerOf(key);
+            if (!oldOwner.equals(newOwner)) {
+                assertEquals("d", newOwner);
+                moved++;
+            }
+        }
+        assertTrue(moved > KEYS / 4 * 0.8 && moved < KEYS / 4 * 1.2, "moved " + moved);
+    }
+
+    @Test
+    void ownerDoesNotDependOnNodeOrder() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c"), 16);
+        ConsistentHashRing reordered = new ConsistentHashRing(List.of("c", "a", "b"), 16);
+        for (int i = 0; i < 1000; i++) {
+            String key = "game-" + i;
+            assertEquals(ring.ownerOf(key), reordered.ownerOf(key));
+        }
+        assertNull(new ConsistentHashRing(List.of(), 16).ownerOf("game"));
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.tictactoe.cluster;
+
+import com.example.tictactoe.model.TicTacToe;
+import com.example.tictactoe.model.dto.TicTacToeMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class GameEventPublisherTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final ClusterService clusterService = mock(ClusterService.class);
+    private final GameEventPublisher publisher =
+            new GameEventPublisher(messagingTemplate, clusterService, objectMapper, 100);
+
+    private static TicTacToe newGame() {
+        TicTacToe game = new TicTacToe("game-1", "alice", "bob");
+        game.updateGameState();
+        return game;
+    }
+
+    @Test
+    void sendsTheSameBytesLocallyAndToTheCluster() throws Exception {
+        TicTacToeMessage message = new TicTacToeMessage();
+        message.setType("error");
+        message.setContent("Game not found.");
+        publisher.publish("/topic/game.1", message);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Message<byte[]>> sent = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate).send(eq("/topic/game.1"), sent.capture());
+        ArgumentCaptor<byte[]> relayed = ArgumentCaptor.forClass(byte[].class);
+        verify(clusterService).publish(eq("/topic/game.1"), relayed.capture());
+
+        assertSame(sent.getValue().getPayload(), relayed.getValue());
+        assertEquals("Game not found.",
+                objectMapper.readValue(relayed.getValue(), TicTacToeMessage.class).getContent());
+    }
+
+    @Test
+    void encodesEachGameStateOnce() throws Exception {
+        TicTacToe game = newGame();
+        byte[] first = publisher.encodeSnapshot(game, "game.sync");
+        assertSame(first, publisher.encodeSnapshot(game, "game.sync"));
+        assertNotSame(first, publisher.encodeSnapshot(game, "game.timeout"));
+
+        game.makeMove("alice", 42);
+        byte[] afterMove = publisher.encodeSnapshot(game, "game.sync");
+        assertNotSame(first, afterMove);
+        TicTacToeMessage decoded = objectMapper.readValue(afterMove, TicTacToeMessage.class);
+        assertEquals(game.getSequence(), decoded.getSequence());
+        assertEquals("X", decoded.getBoard()[2][2]);
+
+        publisher.forget(game.getGameId());
+        byte[] afterForget = publisher.encodeSnapshot(game, "game.sync");
+        assertNotSame(afterMove, afterForget);
+        assertArrayEquals(afterMove, afterForget);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedGameWhenFull() {
+        GameEventPublisher small = new GameEventPublisher(messagingTemplate, clusterService, objectMapper, 2);
+        TicTacToe first = new TicTacToe("game-1", "alice", "bob");
+        TicTacToe second = new TicTacToe("game-2", "carol", "dave");
+        TicTacToe third = new TicTacToe("game-3", "erin", "frank");
+        byte[] firstSnapshot = small.encodeSnapshot(first, "game.sync");
+        byte[] secondSnapshot = small.encodeSnapshot(second, "game.sync");
+        assertSame(firstSnapshot, small.encodeSnapshot(first, "game.sync"));
+
+        small.encodeSnapshot(third, "game.sync");
+
+        assertSame(firstSnapshot, small.encodeSnapshot(first, "game.sync"));
+        assertNotSame(secondSnapshot, small.encodeSnapshot(second, "game.sync"));
+    }
+
+    @Test
+    void publishesCachedSnapshots() {
+        TicTacToe game = newGame();
+        publisher.publishSnapshot(game, "game.sync");
+        publisher.publishSnapshot(game, "game.sync");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Message<byte[]>> sent = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate, times(2)).send(eq("/topic/game.game-1"), sent.capture());
+        assertSame(sent.getAllValues().get(0).getPayload(), sent.getAllValues().get(1).getPayload());
+    }
+}
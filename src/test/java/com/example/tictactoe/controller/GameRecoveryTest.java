@@ -0,0 +1,115 @@
+package com.example.tictactoe.controller;
+
+import com.example.tictactoe.TictactoeApplication;
+import com.example.tictactoe.enumeration.GameState;
+import com.example.tictactoe.manager.TicTacToeManager;
+import com.example.tictactoe.model.BitBoard;
+import com.example.tictactoe.model.TicTacToe;
+import com.example.tictactoe.model.dto.JoinMessage;
+import com.example.tictactoe.model.dto.TicTacToeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stops the application while players are still connected and starts it again on the same live game journal.
+ */
+class GameRecoveryTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void gameInProgressSurvivesARestart() throws Exception {
+        String gameId;
+        try (ConfigurableApplicationContext context = start()) {
+            TicTacToeManager manager = context.getBean(TicTacToeManager.class);
+            StompSession alice = connect(context);
+            StompSession bob = connect(context);
+            alice.send("/app/game.join", join("alice"));
+            awaitTrue(() -> manager.getGameByPlayer("alice") != null);
+            bob.send("/app/game.join", join("bob"));
+            awaitTrue(() -> manager.getGameByPlayer("bob") != null);
+            TicTacToe game = manager.getGameByPlayer("alice");
+            gameId = game.getGameId();
+
+            TicTacToeMessage move = new TicTacToeMessage();
+            move.setGameId(gameId);
+            move.setSender("alice");
+            move.setMove(42);
+            alice.send("/app/game.move", move);
+            awaitTrue(() -> {
+                synchronized (game) {
+                    return game.getBoard().get(42) == BitBoard.X;
+                }
+            });
+            // Both players are still connected when the application stops
+        }
+
+        try (ConfigurableApplicationContext context = start()) {
+            TicTacToeManager manager = context.getBean(TicTacToeManager.class);
+            TicTacToe restored = manager.getGame(gameId);
+            assertNotNull(restored, "the game was not restored");
+            assertSame(restored, manager.getGameByPlayer("alice"));
+            assertSame(restored, manager.getGameByPlayer("bob"));
+            synchronized (restored) {
+                assertEquals(BitBoard.X, restored.getBoard().get(42));
+                assertEquals("bob", restored.getTurn());
+                assertEquals(GameState.PLAYER2_TURN, restored.getGameState());
+                assertTrue(restored.getGameTimeLeftMs() > TicTacToe.GAME_TIME_LIMIT_MS - 60_000);
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(TictactoeApplication.class)
+                .profiles("embedded")
+                .run("--server.port=0",
+                        "--tictactoe.recovery.enabled=true",
+                        "--tictactoe.recovery.directory=" + directory,
+                        "--spring.datasource.url=jdbc:h2:mem:recovery;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.jmx.enabled=false");
+    }
+
+    private static JoinMessage join(String player) {
+        JoinMessage message = new JoinMessage();
+        message.setType("game.join");
+        message.setPlayer(player);
+        return message;
+    }
+
+    private static StompSession connect(ConfigurableApplicationContext context) throws Exception {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        WebSocketStompClient client = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        client.setMessageConverter(new MappingJackson2MessageConverter());
+        return client.connectAsync("http://localhost:" + port + "/ws", new StompSessionHandlerAdapter() {
+        }).get(10, TimeUnit.SECONDS);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(20);
+        }
+    }
+}
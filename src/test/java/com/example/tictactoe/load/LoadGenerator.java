@@ -0,0 +1,398 @@
+package com.example.tictactoe.load;
+
+import com.example.tictactoe.enumeration.GameVariant;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Simulates players connected to a running server over SockJS/STOMP, talking to it like the browser client.
+ * <p>
+ * Every player opens its own session on {@code /ws}, joins through {@code /app/game.join} and plays through
+ * {@code /app/game.move} whenever it is its turn. Instead of a move, a player may leave the game or drop its
+ * connection; afterwards, and after every finished game, it joins again until the run is over.
+ * <p>
+ * The round trip of a move is the time from sending it to receiving the broadcast move message for it.
+ */
+public class LoadGenerator {
+    private static final int BOARD_SIZE = GameVariant.GOMOKU.getSize();
+
+    /**
+     * How players choose their moves.
+     */
+    public enum Script {
+        /**
+         * Random free cells, games take a hundred moves or more.
+         */
+        RANDOM,
+        /**
+         * The first player fills the first row and the second player the second row, so X wins on the ninth move.
+         */
+        SCRIPTED
+    }
+
+    private static final int MAX_PENDING_CONNECTS = 64;
+    private static final long REJOIN_DELAY_MS = 20;
+
+    private final String url;
+    private final int playerCount;
+    private final Duration duration;
+    private final Script script;
+    private final double leaveRate;
+    private final double disconnectRate;
+    private final long thinkTimeMs;
+
+    private final WebSocketStompClient stompClient;
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
+    private final Semaphore pendingConnects = new Semaphore(MAX_PENDING_CONNECTS);
+    private final Timer moveLatency;
+    private final Random seeds = new Random(42);
+
+    private final AtomicLong connects = new AtomicLong();
+    private final AtomicLong joins = new AtomicLong();
+    private final AtomicLong movesSent = new AtomicLong();
+    private final AtomicLong leaves = new AtomicLong();
+    private final AtomicLong disconnects = new AtomicLong();
+    private final AtomicLong syncs = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final Set<String> finishedGames = ConcurrentHashMap.newKeySet();
+    private volatile boolean running;
+
+    /**
+     * @param url            the SockJS endpoint, e.g. {@code http://localhost:8080/ws}
+     * @param playerCount    the number of concurrent players
+     * @param duration       how long the players keep playing
+     * @param script         how the players choose their moves
+     * @param leaveRate      the probability that a player leaves its game instead of making a move
+     * @param disconnectRate the probability that a player drops its connection instead of making a move
+     * @param thinkTimeMs    the time a player waits before making a move
+     */
+    public LoadGenerator(String url, int playerCount, Duration duration, Script script, double leaveRate,
+                         double disconnectRate, long thinkTimeMs) {
+        this.url = url;
+        this.playerCount = playerCount;
+        this.duration = duration;
+        this.script = script;
+        this.leaveRate = leaveRate;
+        this.disconnectRate = disconnectRate;
+        this.thinkTimeMs = thinkTimeMs;
+
+        this.stompClient = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        this.stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        this.moveLatency = Timer.builder("load.move.round-trip")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .percentilePrecision(3)
+                .distributionStatisticExpiry(Duration.ofDays(1))
+                .distributionStatisticBufferLength(1)
+                .register(new SimpleMeterRegistry());
+    }
+
+    /**
+     * Connects all players, lets them play for the configured duration and disconnects them again.
+     *
+     * @return the throughput and latency measured during the run
+     */
+    public LoadReport run() throws InterruptedException {
+        running = true;
+        long start = System.nanoTime();
+        List<SimulatedPlayer> players = new ArrayList<>(playerCount);
+        for (int i = 0; i < playerCount; i++) {
+            SimulatedPlayer player = new SimulatedPlayer("load-" + i, seeds.nextLong());
+            players.add(player);
+            player.connect();
+        }
+        long remaining = duration.toNanos() - (System.nanoTime() - start);
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+        running = false;
+        long elapsedNanos = System.nanoTime() - start;
+
+        scheduler.shutdownNow();
+        for (SimulatedPlayer player : players) {
+            player.disconnect();
+        }
+        stompClient.stop();
+        return new LoadReport(playerCount, elapsedNanos, connects.get(), joins.get(), movesSent.get(),
+                leaves.get(), disconnects.get(), syncs.get(), errors.get(), finishedGames.size(),
+                moveLatency.takeSnapshot());
+    }
+
+    /**
+     * One player with its own STOMP session. All state is guarded by the player's lock, since messages
+     * arrive on the client's threads and delayed actions run on the scheduler.
+     */
+    private class SimulatedPlayer extends StompSessionHandlerAdapter {
+        private final String name;
+        private final Random random;
+        private StompSession session;
+        private StompSession.Subscription gameSubscription;
+        private String gameId;
+        private boolean firstPlayer;
+        private boolean opponentSeated;
+        private long sequence;
+        private final char[] board = new char[BOARD_SIZE * BOARD_SIZE];
+        private int pendingCell = -1;
+        private long pendingSince;
+
+        SimulatedPlayer(String name, long seed) {
+            this.name = name;
+            this.random = new Random(seed);
+        }
+
+        void connect() {
+            if (!running) {
+                return;
+            }
+            try {
+                pendingConnects.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            connects.incrementAndGet();
+            stompClient.connectAsync(url, this).whenComplete((session, failure) -> {
+                pendingConnects.release();
+                if (failure != null && running) {
+                    errors.incrementAndGet();
+                }
+            });
+        }
+
+        synchronized void disconnect() {
+            if (session != null && session.isConnected()) {
+                session.disconnect();
+            }
+            session = null;
+            leaveGameState();
+        }
+
+        @Override
+        public synchronized void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+            this.session = session;
+            session.subscribe("/topic/game.state", handler(this::onStateMessage));
+            join();
+        }
+
+        @Override
+        public void handleException(StompSession session, StompCommand command, StompHeaders headers,
+                                    byte[] payload, Throwable exception) {
+            errors.incrementAndGet();
+        }
+
+        @Override
+        public void handleTransportError(StompSession session, Throwable exception) {
+            if (running) {
+                errors.incrementAndGet();
+            }
+        }
+
+        private synchronized void join() {
+            if (running && session != null && gameId == null) {
+                joins.incrementAndGet();
+                session.send("/app/game.join", Map.of("type", "game.join", "player", name));
+            }
+        }
+
+        private synchronized void onStateMessage(JsonNode message) {
+            if (!"game.joined".equals(message.path("type").asText())) {
+                return;
+            }
+            String player1 = message.path("player1").asText(null);
+            String player2 = message.path("player2").asText(null);
+            if (!name.equals(player1) && !name.equals(player2)) {
+                return;
+            }
+            String joinedGameId = message.path("gameId").asText();
+            if (!joinedGameId.equals(gameId)) {
+                if (gameSubscription != null) {
+                    gameSubscription.unsubscribe();
+                }
+                gameId = joinedGameId;
+                gameSubscription = session.subscribe("/topic/game." + gameId, handler(this::onGameMessage));
+                // Moves sent before the subscription was active are missed, ask for the current board
+                syncs.incrementAndGet();
+                session.send("/app/game.sync", Map.of("type", "game.sync", "gameId", gameId));
+            }
+            loadSnapshot(message);
+            takeTurn(message.path("turn").asText(null));
+        }
+
+        private synchronized void onGameMessage(JsonNode message) {
+            if (gameId == null || !gameId.equals(message.path("gameId").asText(gameId))) {
+                return;
+            }
+            switch (message.path("type").asText()) {
+                case "game.move" -> onMove(message);
+                case "game.sync", "game.timeout", "game.left" -> {
+                    if (message.path("sequence").asLong() >= sequence) {
+                        loadSnapshot(message);
+                        takeTurn(message.path("turn").asText(null));
+                    }
+                }
+                case "game.gameOver" -> {
+                    finishedGames.add(gameId);
+                    leaveGameState();
+                    scheduler.schedule(this::join, REJOIN_DELAY_MS, TimeUnit.MILLISECONDS);
+                }
+                case "error" -> errors.incrementAndGet();
+                default -> {
+                }
+            }
+        }
+
+        private void onMove(JsonNode message) {
+            int cell = message.path("cell").asInt();
+            if (cell == pendingCell) {
+                // Recorded even if the move arrives after a snapshot that already contained it
+                moveLatency.record(System.nanoTime() - pendingSince, TimeUnit.NANOSECONDS);
+                pendingCell = -1;
+            }
+            long moveSequence = message.path("sequence").asLong();
+            if (moveSequence <= sequence) {
+                return;
+            }
+            if (moveSequence != sequence + 1) {
+                syncs.incrementAndGet();
+                session.send("/app/game.sync", Map.of("type", "game.sync", "gameId", gameId));
+                return;
+            }
+            board[cell] = message.path("mark").asText(" ").charAt(0);
+            sequence = moveSequence;
+            if (message.path("winner").isNull() || message.path("winner").isMissingNode()) {
+                takeTurn(message.path("turn").asText(null));
+            }
+        }
+
+        private void loadSnapshot(JsonNode message) {
+            JsonNode rows = message.path("board");
+            for (int row = 0; row < BOARD_SIZE; row++) {
+                for (int col = 0; col < BOARD_SIZE; col++) {
+                    board[row * BOARD_SIZE + col] = rows.path(row).path(col).asText(" ").charAt(0);
+                }
+            }
+            sequence = message.path("sequence").asLong();
+            firstPlayer = name.equals(message.path("player1").asText(null));
+            opponentSeated = !message.path("player1").isNull() && !message.path("player2").isNull();
+            if (pendingCell >= 0 && board[pendingCell] == ' ' && !name.equals(message.path("turn").asText(null))) {
+                // The board was reset or the turn passed, the pending move will never be played
+                pendingCell = -1;
+            }
+        }
+
+        private void takeTurn(String turn) {
+            if (!running || !opponentSeated || pendingCell >= 0 || !name.equals(turn)) {
+                return;
+            }
+            double action = random.nextDouble();
+            if (action < disconnectRate) {
+                disconnects.incrementAndGet();
+                disconnect();
+                scheduler.schedule(this::connect, REJOIN_DELAY_MS, TimeUnit.MILLISECONDS);
+            } else if (action < disconnectRate + leaveRate) {
+                leaves.incrementAndGet();
+                session.send("/app/game.leave", Map.of("type", "game.leave", "player", name));
+                leaveGameState();
+                scheduler.schedule(this::join, REJOIN_DELAY_MS, TimeUnit.MILLISECONDS);
+            } else {
+                int cell = chooseCell();
+                if (cell < 0) {
+                    return;
+                }
+                pendingCell = cell;
+                if (thinkTimeMs > 0) {
+                    String currentGameId = gameId;
+                    scheduler.schedule(() -> sendMove(currentGameId, cell), thinkTimeMs, TimeUnit.MILLISECONDS);
+                } else {
+                    sendMove(gameId, cell);
+                }
+            }
+        }
+
+        private synchronized void sendMove(String moveGameId, int cell) {
+            if (!running || session == null || !moveGameId.equals(gameId) || pendingCell != cell) {
+                return;
+            }
+            movesSent.incrementAndGet();
+            pendingSince = System.nanoTime();
+            session.send("/app/game.move", Map.of("type", "game.move", "gameId", gameId, "sender", name, "move", cell));
+        }
+
+        private int chooseCell() {
+            if (script == Script.SCRIPTED) {
+                int row = firstPlayer ? 0 : 1;
+                for (int col = 0; col < BOARD_SIZE; col++) {
+                    if (board[row * BOARD_SIZE + col] == ' ') {
+                        return row * BOARD_SIZE + col;
+                    }
+                }
+            }
+            int free = 0;
+            for (char mark : board) {
+                if (mark == ' ') {
+                    free++;
+                }
+            }
+            if (free == 0) {
+                return -1;
+            }
+            int skip = random.nextInt(free);
+            for (int cell = 0; cell < board.length; cell++) {
+                if (board[cell] == ' ' && skip-- == 0) {
+                    return cell;
+                }
+            }
+            return -1;
+        }
+
+        private void leaveGameState() {
+            if (gameSubscription != null && session != null && session.isConnected()) {
+                gameSubscription.unsubscribe();
+            }
+            gameSubscription = null;
+            gameId = null;
+            sequence = 0;
+            pendingCell = -1;
+        }
+
+        private StompFrameHandler handler(Consumer<JsonNode> consumer) {
+            return new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return JsonNode.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    consumer.accept((JsonNode) payload);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.tictactoe.load;
+
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Results of a {@link LoadGenerator} run.
+ */
+public class LoadReport {
+    private final int players;
+    private final long elapsedNanos;
+    private final long connects;
+    private final long joins;
+    private final long movesSent;
+    private final long leaves;
+    private final long disconnects;
+    private final long syncs;
+    private final long errors;
+    private final long finishedGames;
+    private final HistogramSnapshot moveLatency;
+
+    public LoadReport(int players, long elapsedNanos, long connects, long joins, long movesSent, long leaves,
+                      long disconnects, long syncs, long errors, long finishedGames, HistogramSnapshot moveLatency) {
+        this.players = players;
+        this.elapsedNanos = elapsedNanos;
+        this.connects = connects;
+        this.joins = joins;
+        this.movesSent = movesSent;
+        this.leaves = leaves;
+        this.disconnects = disconnects;
+        this.syncs = syncs;
+        this.errors = errors;
+        this.finishedGames = finishedGames;
+        this.moveLatency = moveLatency;
+    }
+
+    public long getMovesSent() {
+        return movesSent;
+    }
+
+    /**
+     * Returns the number of moves whose broadcast came back to the player who made them.
+     */
+    public long getMovesCompleted() {
+        return moveLatency.count();
+    }
+
+    public long getFinishedGames() {
+        return finishedGames;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Returns the completed moves per second over the whole run.
+     */
+    public double getMoveThroughput() {
+        return getMovesCompleted() / (elapsedNanos / 1e9);
+    }
+
+    /**
+     * Returns a move round-trip percentile in milliseconds.
+     *
+     * @param percentile 0.5, 0.99 or 0.999
+     */
+    public double getMoveLatencyMs(double percentile) {
+        for (ValueAtPercentile value : moveLatency.percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return Double.NaN;
+    }
+
+    @Override
+    public String toString() {
+        double seconds = elapsedNanos / 1e9;
+        return String.format(Locale.ROOT, """
+                        players:          %d
+                        duration:         %.1f s
+                        connects:         %d
+                        joins:            %d
+                        games finished:   %d (%.1f/s)
+                        moves sent:       %d
+                        moves completed:  %d (%.1f/s)
+                        move round trip:  p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms
+                        leaves:           %d
+                        disconnects:      %d
+                        resyncs:          %d
+                        errors:           %d""",
+                players, seconds, connects, joins, finishedGames, finishedGames / seconds, movesSent,
+                getMovesCompleted(), getMoveThroughput(), getMoveLatencyMs(0.5), getMoveLatencyMs(0.99),
+                getMoveLatencyMs(0.999), moveLatency.max(TimeUnit.MILLISECONDS), leaves, disconnects, syncs, errors);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.tictactoe.load;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Starts the application on a random port with an in-memory database and plays games against it over STOMP.
+ * <p>
+ * The smoke test runs with every build. The load test only runs when the number of players is given:
+ * <pre>
+ * mvn test -Dtest=LoadTest -Dloadtest.players=2000 -Dloadtest.seconds=60
+ *          [-Dloadtest.script=RANDOM|SCRIPTED] [-Dloadtest.leave-rate=0.001] [-Dloadtest.disconnect-rate=0.001]
+ *          [-Dloadtest.think-ms=0]
+ * </pre>
+ */
+// Simulated players move as soon as it is their turn, far faster than the move rate limit allows a person
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "tictactoe.rate-limit.moves-per-second=1000")
+@ActiveProfiles("embedded")
+class LoadTest {
+    private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void smallScriptedRunFinishesGames() throws InterruptedException {
+        LoadReport report = new LoadGenerator(url(), 20, Duration.ofSeconds(3), LoadGenerator.Script.SCRIPTED,
+                0.01, 0.01, 0).run();
+
+        assertTrue(report.getMovesCompleted() > 0, () -> "no move completed\n" + report);
+        assertTrue(report.getFinishedGames() > 0, () -> "no game finished\n" + report);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "loadtest.players", matches = "\\d+")
+    void load() throws InterruptedException {
+        LoadReport report = new LoadGenerator(url(),
+                Integer.getInteger("loadtest.players"),
+                Duration.ofSeconds(Long.getLong("loadtest.seconds", 60)),
+                LoadGenerator.Script.valueOf(System.getProperty("loadtest.script", "RANDOM")),
+                Double.parseDouble(System.getProperty("loadtest.leave-rate", "0.001")),
+                Double.parseDouble(System.getProperty("loadtest.disconnect-rate", "0.001")),
+                Long.getLong("loadtest.think-ms", 0)).run();
+        log.info("Load test finished\n{}", report);
+    }
+
+    private String url() {
+        return "http://localhost:" + port + "/ws";
+    }
+}
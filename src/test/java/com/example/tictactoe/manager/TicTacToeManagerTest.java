@@ -0,0 +1,302 @@
+package com.example.tictactoe.manager;
+
+import com.example.tictactoe.enumeration.GameState;
+import com.example.tictactoe.enumeration.GameVariant;
+import com.example.tictactoe.model.TicTacToe;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TicTacToeManagerTest {
+    private static final int BOARD_SIZE = GameVariant.GOMOKU.getSize();
+
+    @Test
+    void playersArePairedInArrivalOrder() {
+        TicTacToeManager manager = new TicTacToeManager();
+        TicTacToe first = manager.joinGame("alice");
+        TicTacToe second = manager.joinGame("bob");
+        TicTacToe third = manager.joinGame("carol");
+        TicTacToe fourth = manager.joinGame("dave");
+
+        assertSame(first, second);
+        assertSame(third, fourth);
+        assertNotEquals(first.getGameId(), third.getGameId());
+        assertEquals(GameState.PLAYER1_TURN, first.getGameState());
+        assertEquals("bob", first.getPlayer2());
+        assertEquals(0, manager.waitingPlayers.size());
+    }
+
+    @Test
+    void countsActiveAndWaitingGames() {
+        TicTacToeManager manager = new TicTacToeManager();
+        manager.joinGame("alice");
+        manager.joinGame("bob");
+        manager.joinGame("carol");
+        assertEquals(2, manager.getActiveGameCount());
+        assertEquals(1, manager.getWaitingGameCount());
+
+        manager.leaveGame("carol");
+        assertEquals(1, manager.getActiveGameCount());
+        assertEquals(0, manager.getWaitingGameCount());
+    }
+
+    @Test
+    void botIsOnlyPairedWhenNobodyIsWaiting() {
+        TicTacToeManager manager = new TicTacToeManager();
+        TicTacToe waiting = manager.joinGame("alice");
+        TicTacToe human = manager.joinGame("bob", GameVariant.GOMOKU, "bot");
+        assertSame(waiting, human);
+        assertEquals("bob", human.getPlayer2());
+
+        TicTacToe botGame = manager.joinGame("carol", GameVariant.GOMOKU, "bot");
+        assertEquals("bot", botGame.getPlayer2());
+        assertEquals(GameState.PLAYER1_TURN, botGame.getGameState());
+        assertTrue(manager.isBotGame(botGame.getGameId()));
+        assertEquals(0, manager.getWaitingGameCount());
+
+        // The bot never waits for a human, its game ends with the human leaving
+        assertNull(manager.leaveGame("carol"));
+        assertNull(manager.getGame(botGame.getGameId()));
+        assertFalse(manager.isBotGame(botGame.getGameId()));
+    }
+
+    @Test
+    void gameClockStartsWhenTheSecondPlayerJoins() {
+        TicTacToeManager manager = new TicTacToeManager();
+        TicTacToe game = manager.joinGame("alice");
+        game.setTotalGameStartTime(System.currentTimeMillis() - TicTacToe.GAME_TIME_LIMIT_MS - 1);
+        assertTrue(game.isGameTimeLimitExceeded());
+
+        // Waiting for an opponent doesn't count against the game time limit
+        manager.joinGame("bob");
+        assertFalse(game.isGameTimeLimitExceeded());
+        assertTrue(game.getGameTimeLeftMs() > TicTacToe.GAME_TIME_LIMIT_MS - 60_000);
+
+        // Neither does waiting again after the opponent left
+        manager.leaveGame("bob");
+        game.setTotalGameStartTime(System.currentTimeMillis() - TicTacToe.GAME_TIME_LIMIT_MS - 1);
+        manager.joinGame("carol");
+        assertFalse(game.isGameTimeLimitExceeded());
+    }
+
+    @Test
+    void playersAreOnlyPairedWithinTheirVariant() {
+        TicTacToeManager manager = new TicTacToeManager();
+        TicTacToe classic = manager.joinGame("alice", GameVariant.CLASSIC, null);
+        TicTacToe gomoku = manager.joinGame("bob", GameVariant.GOMOKU, null);
+        assertNotEquals(classic.getGameId(), gomoku.getGameId());
+        assertEquals(3, classic.getBoard().getSize());
+
+        assertSame(classic, manager.joinGame("carol", GameVariant.CLASSIC, null));
+        assertSame(gomoku, manager.joinGame("dave"));
+        assertEquals(0, manager.getWaitingGameCount());
+
+        // The remaining player waits for a player of the same variant
+        manager.leaveGame("alice");
+        assertSame(classic, manager.joinGame("erin", GameVariant.CLASSIC, null));
+        assertEquals(GameVariant.CLASSIC, classic.getVariant());
+    }
+
+    @Test
+    void playersArePairedWithTheNearestRatingTheWaitingPlayerAccepts() {
+        TicTacToeManager manager = new TicTacToeManager(100, 100, 1, 60_000);
+        TicTacToe strong = manager.joinGame("alice", GameVariant.GOMOKU, 2000, null);
+        TicTacToe average = manager.joinGame("bob", GameVariant.GOMOKU, 1500, null);
+
+        // Out of reach of both waiting players, so a third game opens
+        TicTacToe weak = manager.joinGame("carol", GameVariant.GOMOKU, 1100, null);
+        assertNull(weak.getPlayer2());
+        assertEquals(3, manager.getWaitingGameCount());
+
+        assertSame(average, manager.joinGame("dave", GameVariant.GOMOKU, 1450, null));
+        assertSame(strong, manager.joinGame("erin", GameVariant.GOMOKU, 1920, null));
+        assertEquals(1920, strong.getPlayer2Rating());
+
+        // The remaining player keeps their rating when the game reopens
+        manager.leaveGame("alice");
+        assertEquals(1920, strong.getPlayer1Rating());
+        assertSame(strong, manager.joinGame("frank", GameVariant.GOMOKU, 2010, null));
+    }
+
+    @Test
+    void joiningTwiceReturnsTheSameGame() {
+        TicTacToeManager manager = new TicTacToeManager();
+        TicTacToe game = manager.joinGame("alice");
+        assertSame(game, manager.joinGame("alice"));
+        assertSame(game, manager.getGameByPlayer("alice"));
+        assertNull(game.getPlayer2());
+    }
+
+    @Test
+    void leavingReopensTheGameForTheNextPlayer() {
+        TicTacToeManager manager = new TicTacToeManager();
+        TicTacToe game = manager.joinGame("alice");
+        manager.joinGame("bob");
+        game.makeMove("alice", 0);
+
+        assertSame(game, manager.leaveGame("alice"));
+        assertEquals("bob", game.getPlayer1());
+        assertEquals("bob", game.getTurn());
+        assertEquals(GameState.WAITING_FOR_PLAYER, game.getGameState());
+        assertEquals(0, game.getBoard().getStoneCount());
+        assertNull(manager.getGameByPlayer("alice"));
+
+        assertSame(game, manager.joinGame("carol"));
+        assertEquals("carol", game.getPlayer2());
+    }
+
+    @Test
+    void lastPlayerLeavingRemovesTheGame() {
+        TicTacToeManager manager = new TicTacToeManager();
+        TicTacToe game = manager.joinGame("alice");
+        assertNull(manager.leaveGame("alice"));
+        assertNull(manager.getGame(game.getGameId()));
+        assertNotEquals(game.getGameId(), manager.joinGame("bob").getGameId());
+    }
+
+    @Test
+    void removeGameReleasesBothPlayers() {
+        TicTacToeManager manager = new TicTacToeManager();
+        TicTacToe game = manager.joinGame("alice");
+        manager.joinGame("bob");
+        manager.removeGame(game.getGameId());
+
+        assertNull(manager.getGameByPlayer("alice"));
+        assertNull(manager.getGameByPlayer("bob"));
+        assertNotEquals(game.getGameId(), manager.joinGame("alice").getGameId());
+    }
+
+    @Test
+    void thousandsOfConcurrentGamesStayConsistent() throws Exception {
+        int games = 4000;
+        TicTacToeManager manager = new TicTacToeManager();
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            List<String> players = new ArrayList<>();
+            for (int i = 0; i < games * 2; i++) {
+                players.add("player-" + i);
+            }
+
+            // Everybody joins at once, some of them twice
+            List<Callable<TicTacToe>> joins = new ArrayList<>();
+            for (String player : players) {
+                joins.add(() -> manager.joinGame(player));
+                if (player.hashCode() % 3 == 0) {
+                    joins.add(() -> manager.joinGame(player));
+                }
+            }
+            await(executor.invokeAll(joins));
+
+            Map<TicTacToe, Boolean> seated = new IdentityHashMap<>();
+            for (String player : players) {
+                TicTacToe game = manager.getGameByPlayer(player);
+                assertNotNull(game, player);
+                assertTrue(player.equals(game.getPlayer1()) || player.equals(game.getPlayer2()), player);
+                seated.put(game, true);
+            }
+            assertEquals(games, seated.size());
+            for (TicTacToe game : seated.keySet()) {
+                assertNotNull(game.getPlayer2());
+                assertNotEquals(game.getPlayer1(), game.getPlayer2());
+            }
+            assertEquals(0, manager.waitingPlayers.size());
+
+            // Both players of every game hammer their game with moves while a timeout task flips the turn
+            List<Callable<Void>> moves = new ArrayList<>();
+            for (TicTacToe game : seated.keySet()) {
+                moves.add(() -> play(game, game.getPlayer1()));
+                moves.add(() -> play(game, game.getPlayer2()));
+                moves.add(() -> {
+                    for (int i = 0; i < 20; i++) {
+                        synchronized (game) {
+                            if (!game.isGameOver()) {
+                                game.setTurn(game.getTurn().equals(game.getPlayer1()) ? game.getPlayer2() : game.getPlayer1());
+                            }
+                        }
+                        Thread.yield();
+                    }
+                    return null;
+                });
+            }
+            await(executor.invokeAll(moves));
+
+            for (TicTacToe game : seated.keySet()) {
+                synchronized (game) {
+                    long marks = Arrays.stream(game.getBoard().toArray()).flatMap(Arrays::stream)
+                            .filter(cell -> !cell.equals(" ")).count();
+                    assertEquals(marks, game.getBoard().getStoneCount());
+                    assertTrue(game.isGameOver());
+                }
+            }
+
+            // Finished games are removed while some players leave at the same time
+            List<Callable<Object>> exits = new ArrayList<>();
+            for (TicTacToe game : seated.keySet()) {
+                exits.add(() -> {
+                    manager.removeGame(game.getGameId());
+                    return null;
+                });
+                exits.add(() -> manager.leaveGame(game.getPlayer2()));
+            }
+            await(executor.invokeAll(exits));
+
+            for (String player : players) {
+                TicTacToe game = manager.getGameByPlayer(player);
+                if (game != null) {
+                    // Only games reopened by a leave that won the race against removeGame may remain
+                    assertEquals(player, game.getPlayer1());
+                    assertNull(game.getPlayer2());
+                    manager.removeGame(game.getGameId());
+                }
+                assertNull(manager.getGameByPlayer(player));
+            }
+            assertEquals(0, manager.waitingPlayers.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Void play(TicTacToe game, String player) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < BOARD_SIZE * BOARD_SIZE * 4; i++) {
+            synchronized (game) {
+                if (game.isGameOver()) {
+                    return null;
+                }
+                if (player.equals(game.getTurn())) {
+                    game.makeMove(player, random.nextInt(BOARD_SIZE * BOARD_SIZE));
+                }
+            }
+        }
+        synchronized (game) {
+            // Finish the game deterministically if random play did not
+            for (int cell = 0; !game.isGameOver() && cell < BOARD_SIZE * BOARD_SIZE; cell++) {
+                game.makeMove(game.getTurn(), cell);
+            }
+        }
+        return null;
+    }
+
+    private static <T> void await(List<Future<T>> futures) throws Exception {
+        for (Future<T> future : futures) {
+            future.get();
+        }
+    }
+}
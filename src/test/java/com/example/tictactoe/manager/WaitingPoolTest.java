@@ -0,0 +1,58 @@
+package com.example.tictactoe.manager;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WaitingPoolTest {
+    private final WaitingPool pool = new WaitingPool(32, 100, 1, 10_000);
+
+    @Test
+    void prefersTheNearestBucketAndTheOldestGameInIt() {
+        pool.offer("far", 1750, 0);
+        pool.offer("near-old", 1520, 0);
+        pool.offer("near-new", 1550, 1);
+
+        assertEquals("near-old", pool.poll(1500, 2, id -> true));
+        assertEquals("near-new", pool.poll(1500, 2, id -> true));
+        assertNull(pool.poll(1500, 2, id -> true));
+        assertEquals("far", pool.poll(1500, 20_000, id -> true));
+    }
+
+    @Test
+    void windowWidensWhileWaiting() {
+        pool.offer("waiting", 2000, 0);
+
+        assertNull(pool.poll(1500, 0, id -> true));
+        assertNull(pool.poll(1500, 39_999, id -> true));
+        assertEquals("waiting", pool.poll(1500, 40_000, id -> true));
+    }
+
+    @Test
+    void skipsGamesThatAreNoLongerWaiting() {
+        pool.offer("filled", 1500, 0);
+        pool.offer("open", 1500, 1);
+
+        assertEquals("open", pool.poll(1500, 2, id -> !id.equals("filled")));
+        assertNull(pool.poll(1500, 2, id -> true));
+    }
+
+    @Test
+    void pairsTensOfThousandsOfWaitingPlayers() {
+        int waiting = 50_000;
+        for (int i = 0; i < waiting; i++) {
+            pool.offer("game-" + i, 800 + i % 1400, 0);
+        }
+        Set<String> paired = new HashSet<>();
+        for (int i = 0; i < waiting; i++) {
+            String gameId = pool.poll(800 + (i * 7) % 1400, 1_000_000, id -> true);
+            assertTrue(paired.add(gameId), gameId);
+        }
+        assertNull(pool.poll(1500, 1_000_000, id -> true));
+    }
+}
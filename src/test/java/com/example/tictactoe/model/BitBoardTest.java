@@ -0,0 +1,143 @@
+package com.example.tictactoe.model;
+
+import com.example.tictactoe.converter.BoardCodec;
+import com.example.tictactoe.converter.BoardConverter;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BitBoardTest {
+
+    @Test
+    void placeRejectsOccupiedCells() {
+        BitBoard board = new BitBoard(20);
+        assertTrue(board.place(399, BitBoard.O));
+        assertFalse(board.place(399, BitBoard.X));
+        assertEquals(BitBoard.O, board.get(19, 19));
+        assertEquals(1, board.getStoneCount());
+    }
+
+    @Test
+    void undoTakesBackTheLastStone() {
+        BitBoard board = new BitBoard(20);
+        board.place(64, BitBoard.X);
+        BitBoard before = board.copy();
+        board.place(65, BitBoard.O);
+
+        assertEquals(65, board.undoLastMove());
+        assertEquals(before, board);
+        assertTrue(board.isEmpty(65));
+        assertTrue(board.place(65, BitBoard.X));
+    }
+
+    @Test
+    void arrayFormRoundTrips() {
+        BitBoard board = new BitBoard(20);
+        board.place(0, BitBoard.X);
+        board.place(63, BitBoard.O);
+        board.place(64, BitBoard.X);
+        board.place(250, BitBoard.O);
+
+        String[][] array = board.toArray();
+        assertEquals("X", array[0][0]);
+        assertEquals("O", array[3][3]);
+        assertEquals("X", array[3][4]);
+        assertEquals(" ", array[3][5]);
+        assertEquals(board, BitBoard.fromArray(array));
+    }
+
+    @Test
+    void codecKeepsMoveOrder() {
+        BitBoard board = new BitBoard(20);
+        int[] moves = {210, 0, 399, 64, 63};
+        for (int i = 0; i < moves.length; i++) {
+            board.place(moves[i], i % 2 == 0 ? BitBoard.X : BitBoard.O);
+        }
+
+        byte[] data = BoardCodec.encode(board);
+        assertEquals(BoardCodec.MOVES, data[0]);
+        assertEquals(4 + moves.length * 2, data.length);
+
+        BitBoard decoded = BoardCodec.decode(data);
+        assertEquals(board, decoded);
+        assertTrue(decoded.isHistoryKnown());
+        for (int i = 0; i < moves.length; i++) {
+            assertEquals(moves[i], decoded.getMove(i));
+            assertEquals(board.getMoveMark(i), decoded.getMoveMark(i));
+        }
+    }
+
+    @Test
+    void codecPacksBoardsWithoutHistory() {
+        BitBoard board = new BitBoard(20);
+        board.place(1, BitBoard.O);
+        board.place(398, BitBoard.X);
+        board.forgetHistory();
+
+        byte[] data = BoardCodec.encode(board);
+        assertEquals(BoardCodec.PACKED, data[0]);
+        assertEquals(102, data.length);
+
+        BitBoard decoded = BoardCodec.decode(data);
+        assertEquals(board, decoded);
+        assertFalse(decoded.isHistoryKnown());
+    }
+
+    @Test
+    void codecRejectsCorruptData() {
+        BitBoard board = new BitBoard(3);
+        board.place(4, BitBoard.X);
+        board.place(0, BitBoard.O);
+        byte[] data = BoardCodec.encode(board);
+
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decode(new byte[]{BoardCodec.MOVES}));
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decode(Arrays.copyOf(data, data.length - 1)));
+        byte[] outside = data.clone();
+        outside[5] = 9;
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decode(outside));
+        byte[] taken = data.clone();
+        taken[7] = 4;
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decode(taken));
+        byte[] noSize = data.clone();
+        noSize[1] = 0;
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decode(noSize));
+        byte[] packed = {BoardCodec.PACKED, 3, 0, 0, (byte) 0x03};
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decode(packed));
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decode(new byte[]{BoardCodec.PACKED, 3, 0}));
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decode(new byte[]{7, 3}));
+    }
+
+    @Test
+    void converterReadsLegacyJsonRows() {
+        BoardConverter converter = new BoardConverter();
+        BitBoard board = converter.convertToEntityAttribute("[[\" \",\" \",\" \"],[\" \",\"X\",\" \"],[\"O\",\" \",\" \"]]");
+
+        assertEquals(BitBoard.X, board.get(1, 1));
+        assertEquals(BitBoard.O, board.get(2, 0));
+        assertEquals(2, board.getStoneCount());
+        assertFalse(board.isHistoryKnown());
+
+        String encoded = converter.convertToDatabaseColumn(board);
+        assertFalse(encoded.startsWith("["));
+        assertEquals(board, converter.convertToEntityAttribute(encoded));
+    }
+
+    @Test
+    void converterRoundTripsBinaryRows() {
+        BoardConverter converter = new BoardConverter();
+        BitBoard board = new BitBoard(3);
+        board.place(4, BitBoard.X);
+        board.place(0, BitBoard.O);
+
+        BitBoard decoded = converter.convertToEntityAttribute(converter.convertToDatabaseColumn(board));
+        assertArrayEquals(board.toArray(), decoded.toArray());
+        assertEquals(4, decoded.getMove(0));
+        assertEquals(0, decoded.getMove(1));
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.tictactoe.model;
+
+import com.example.tictactoe.enumeration.GameVariant;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Regression tests for the incremental win detection in {@link TicTacToe#makeMove(String, int)}.
+ * Every move is checked against a full-board scan, which is how the winner used to be computed.
+ */
+class TicTacToeTest {
+    private static final int BOARD_SIZE = GameVariant.GOMOKU.getSize();
+
+    private static final int WINNING_LENGTH = 5;
+
+    @Test
+    void randomGamesMatchFullBoardScan() {
+        Random random = new Random(42);
+        for (int round = 0; round < 500; round++) {
+            TicTacToe game = new TicTacToe("alice", "bob");
+            List<Integer> cells = shuffledCells(random);
+            for (int move : cells) {
+                String player = game.getTurn();
+                game.makeMove(player, move);
+                assertEquals(scanWinner(game.getBoard().toArray()), game.getWinner(), "round " + round + ", move " + move);
+                if (game.isGameOver()) {
+                    break;
+                }
+            }
+            assertTrue(game.isGameOver());
+        }
+    }
+
+    @Test
+    void randomGamesOfEveryVariantMatchFullBoardScan() {
+        Random random = new Random(3);
+        for (GameVariant variant : GameVariant.values()) {
+            for (int round = 0; round < 200; round++) {
+                TicTacToe game = new TicTacToe("game", "alice", "bob", variant);
+                for (int move : shuffledCells(random, variant.getCellCount())) {
+                    game.makeMove(random.nextBoolean() ? "alice" : "bob", move);
+                    assertEquals(scanWinner(game.getBoard().toArray(), variant.getWinLength()), game.getWinner(),
+                            variant + ", round " + round + ", move " + move);
+                    if (game.isGameOver()) {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void classicGameIsPlayedOnThreeByThree() {
+        TicTacToe game = new TicTacToe("game", "alice", "bob", GameVariant.CLASSIC);
+        game.makeMove("alice", 9);
+        assertEquals(0, game.getBoard().getStoneCount());
+        for (int move : new int[]{0, 3, 4, 5}) {
+            game.makeMove(game.getTurn(), move);
+        }
+        assertNull(game.getWinner());
+        game.makeMove("alice", 8);
+        assertEquals("X", game.getWinner());
+    }
+
+    @Test
+    void randomStonesWithoutTurnOrderMatchFullBoardScan() {
+        Random random = new Random(7);
+        for (int round = 0; round < 500; round++) {
+            TicTacToe game = new TicTacToe("alice", "bob");
+            for (int move : shuffledCells(random)) {
+                game.makeMove(random.nextBoolean() ? "alice" : "bob", move);
+                assertEquals(scanWinner(game.getBoard().toArray()), game.getWinner(), "round " + round + ", move " + move);
+                if (game.isGameOver()) {
+                    break;
+                }
+            }
+        }
+    }
+
+    @Test
+    void fullBoardWithoutLineIsTie() {
+        TicTacToe game = new TicTacToe("alice", "bob");
+        for (int row = 0; row < BOARD_SIZE; row++) {
+            for (int col = 0; col < BOARD_SIZE; col++) {
+                assertNull(game.getWinner());
+                game.makeMove((col / 2 + row) % 2 == 0 ? "alice" : "bob", row * BOARD_SIZE + col);
+            }
+        }
+        assertEquals("TIE", game.getWinner());
+        assertEquals(scanWinner(game.getBoard().toArray()), game.getWinner());
+        assertTrue(game.isGameOver());
+    }
+
+    @Test
+    void lineCompletedInTheMiddleWins() {
+        TicTacToe game = new TicTacToe("alice", "bob");
+        int row = 7;
+        for (int col : new int[]{3, 4, 6, 7}) {
+            game.makeMove("alice", row * BOARD_SIZE + col);
+        }
+        assertNull(game.getWinner());
+        game.makeMove("alice", row * BOARD_SIZE + 5);
+        assertEquals("X", game.getWinner());
+    }
+
+    @Test
+    void occupiedAndOutOfRangeMovesAreIgnored() {
+        TicTacToe game = new TicTacToe("alice", "bob");
+        game.makeMove("alice", 0);
+        game.makeMove("bob", 0);
+        game.makeMove("bob", -1);
+        game.makeMove("bob", BOARD_SIZE * BOARD_SIZE);
+        assertEquals(BitBoard.X, game.getBoard().get(0));
+        assertEquals("bob", game.getTurn());
+        assertFalse(game.isGameOver());
+    }
+
+    @Test
+    void resetBoardClearsStonesAndWinner() {
+        TicTacToe game = new TicTacToe("alice", "bob");
+        for (int col = 0; col < WINNING_LENGTH; col++) {
+            game.makeMove("alice", col);
+        }
+        assertTrue(game.isGameOver());
+        game.resetBoard();
+        assertNull(game.getWinner());
+        assertFalse(game.isGameOver());
+        assertTrue(game.getBoard().isEmpty(0));
+    }
+
+    private static List<Integer> shuffledCells(Random random) {
+        return shuffledCells(random, BOARD_SIZE * BOARD_SIZE);
+    }
+
+    private static List<Integer> shuffledCells(Random random, int cellCount) {
+        List<Integer> cells = new ArrayList<>();
+        for (int i = 0; i < cellCount; i++) {
+            cells.add(i);
+        }
+        Collections.shuffle(cells, random);
+        return cells;
+    }
+
+    /**
+     * Reference implementation: the scan over every cell and direction that the game used before.
+     */
+    private static String scanWinner(String[][] board) {
+        return scanWinner(board, WINNING_LENGTH);
+    }
+
+    private static String scanWinner(String[][] board, int winLength) {
+        for (int i = 0; i < board.length; i++) {
+            for (int j = 0; j < board.length; j++) {
+                for (int[] direction : new int[][]{{1, 0}, {0, 1}, {1, 1}, {1, -1}}) {
+                    String mark = scanSequence(board, winLength, i, j, direction[0], direction[1]);
+                    if (mark != null) {
+                        return mark;
+                    }
+                }
+            }
+        }
+        for (String[] row : board) {
+            for (String cell : row) {
+                if (Objects.equals(cell, " ")) {
+                    return null;
+                }
+            }
+        }
+        return "TIE";
+    }
+
+    private static String scanSequence(String[][] board, int winLength, int row, int col,
+                                       int rowIncrement, int colIncrement) {
+        int size = board.length;
+        int endRow = row + (winLength - 1) * rowIncrement;
+        int endCol = col + (winLength - 1) * colIncrement;
+        if (endRow < 0 || endRow >= size || endCol < 0 || endCol >= size
+                || Objects.equals(board[row][col], " ")) {
+            return null;
+        }
+        for (int k = 0; k < winLength; k++) {
+            if (!Objects.equals(board[row + k * rowIncrement][col + k * colIncrement], board[row][col])) {
+                return null;
+            }
+        }
+        return board[row][col];
+    }
+}
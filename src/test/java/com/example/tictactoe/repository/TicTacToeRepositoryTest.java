@@ -0,0 +1,98 @@
+package com.example.tictactoe.repository;
+
+import com.example.tictactoe.enumeration.GameState;
+import com.example.tictactoe.model.TicTacToe;
+import com.example.tictactoe.model.dto.GameHistoryPage;
+import com.example.tictactoe.service.TicTacToeService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("embedded")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TicTacToeRepositoryTest {
+    @Autowired
+    private TicTacToeRepository repository;
+
+    private TicTacToeService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TicTacToeService(repository);
+        long time = 1_700_000_000_000L;
+        for (int i = 0; i < 25; i++) {
+            // Games 10 and 11 end at the same time, the ID breaks the tie
+            String opponent = "player-" + i;
+            TicTacToe game = i % 2 == 0 ? new TicTacToe("alice", opponent) : new TicTacToe(opponent, "alice");
+            if (i % 5 == 4) {
+                game = new TicTacToe("bob", opponent);
+            }
+            game.setWinner(game.getPlayer1());
+            game.setGameState(GameState.PLAYER1_WON);
+            game.setLastMoveTime(new Date(time + (i == 11 ? 10 : i) * 1000L));
+            repository.save(game);
+        }
+    }
+
+    @Test
+    void pagesThroughAllGamesNewestFirst() throws Exception {
+        List<GameHistoryView> games = readAll(null, 10);
+
+        assertEquals(25, games.size());
+        for (int i = 1; i < games.size(); i++) {
+            GameHistoryView newer = games.get(i - 1);
+            GameHistoryView older = games.get(i);
+            int time = newer.getLastMoveTime().compareTo(older.getLastMoveTime());
+            assertTrue(time > 0 || time == 0 && newer.getId() > older.getId());
+        }
+        assertEquals(25, games.stream().map(GameHistoryView::getId).distinct().count());
+
+        String json = new ObjectMapper().writeValueAsString(service.getHistory(null, null, 2));
+        assertTrue(json.contains("\"player1\""), json);
+        assertFalse(json.contains("board"), json);
+    }
+
+    @Test
+    void pagesThroughTheGamesOfOnePlayerInEitherSeat() {
+        List<GameHistoryView> games = readAll("alice", 3);
+
+        assertEquals(20, games.size());
+        for (GameHistoryView game : games) {
+            assertTrue("alice".equals(game.getPlayer1()) || "alice".equals(game.getPlayer2()));
+        }
+        assertEquals(5, readAll("bob", 5).size());
+        assertNull(service.getHistory("bob", null, 5).getNext());
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThrows(IllegalArgumentException.class, () -> service.getHistory(null, "yesterday", 10));
+    }
+
+    private List<GameHistoryView> readAll(String player, int limit) {
+        List<GameHistoryView> games = new ArrayList<>();
+        String before = null;
+        do {
+            GameHistoryPage page = service.getHistory(player, before, limit);
+            assertTrue(page.getGames().size() <= limit);
+            games.addAll(page.getGames());
+            before = page.getNext();
+        } while (before != null);
+        return games;
+    }
+}
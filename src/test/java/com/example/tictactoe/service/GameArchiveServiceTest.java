@@ -0,0 +1,106 @@
+package com.example.tictactoe.service;
+
+import com.example.tictactoe.enumeration.GameState;
+import com.example.tictactoe.enumeration.GameVariant;
+import com.example.tictactoe.manager.TicTacToeManager;
+import com.example.tictactoe.model.PlayerStats;
+import com.example.tictactoe.model.TicTacToe;
+import com.example.tictactoe.repository.PlayerStatsRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("embedded")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GameArchiveServiceTest {
+    private static final List<String> PLAYERS = List.of("archive-alice", "archive-bob");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlayerStatsRepository playerStatsRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM tic_tac_toe WHERE player1 IN (?, ?)", PLAYERS.get(0), PLAYERS.get(1));
+        playerStatsRepository.deleteAllById(PLAYERS);
+    }
+
+    @Test
+    void concurrentBatchesDoNotLoseResults() throws Exception {
+        LeaderboardService leaderboardService = new LeaderboardService(playerStatsRepository, 60_000);
+        // A full queue makes most adds write on their own thread, next to the flusher
+        GameArchiveService archiveService = new GameArchiveService(jdbcTemplate, leaderboardService,
+                transactionManager, 1, 10, 10, 20, 0);
+        int threads = 8;
+        int gamesPerThread = 25;
+
+        List<Thread> producers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Thread producer = new Thread(() -> {
+                for (int j = 0; j < gamesPerThread; j++) {
+                    archiveService.archive(finished(PLAYERS.get(0), PLAYERS.get(1)));
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        archiveService.flush();
+
+        assertEquals(0, archiveService.getQueue().getFailedCount());
+        PlayerStats winner = playerStatsRepository.findById(PLAYERS.get(0)).orElseThrow();
+        PlayerStats loser = playerStatsRepository.findById(PLAYERS.get(1)).orElseThrow();
+        assertEquals(threads * gamesPerThread, winner.getWins());
+        assertEquals(threads * gamesPerThread, loser.getLosses());
+    }
+
+    @Test
+    void restartedNodeMatchesPlayersOnTheirStoredRatings() {
+        for (String player : PLAYERS) {
+            PlayerStats stats = new PlayerStats(player);
+            stats.setRating(1900);
+            playerStatsRepository.save(stats);
+        }
+        LeaderboardService leaderboardService = new LeaderboardService(playerStatsRepository, 60_000);
+        leaderboardService.loadRatings();
+        TicTacToeManager manager = new TicTacToeManager(100, 100, 0, 60_000);
+
+        TicTacToe game = manager.joinGame(PLAYERS.get(0), GameVariant.GOMOKU,
+                leaderboardService.getRating(PLAYERS.get(0)), null);
+        manager.joinGame("archive-newcomer", GameVariant.GOMOKU, leaderboardService.getRating("archive-newcomer"), null);
+        manager.joinGame(PLAYERS.get(1), GameVariant.GOMOKU, leaderboardService.getRating(PLAYERS.get(1)), null);
+
+        // The newcomer's initial rating is too far off, so the waiting player is matched with the other 1900 player
+        assertEquals(PLAYERS.get(1), game.getPlayer2());
+        leaderboardService.stop();
+    }
+
+    private static TicTacToe finished(String player1, String player2) {
+        TicTacToe game = new TicTacToe(UUID.randomUUID().toString(), player1, player2);
+        game.setWinner(player1);
+        game.setGameState(GameState.PLAYER1_WON);
+        return game;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.tictactoe.service;
+
+import com.example.tictactoe.enumeration.GameVariant;
+import com.example.tictactoe.model.GameMove;
+import com.example.tictactoe.model.TicTacToe;
+import com.example.tictactoe.model.dto.ExportedGame;
+import com.example.tictactoe.repository.GameMoveRepository;
+import com.example.tictactoe.repository.TicTacToeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("embedded")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class GameExportServiceTest {
+    @Autowired
+    private TicTacToeRepository ticTacToeRepository;
+
+    @Autowired
+    private GameMoveRepository gameMoveRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void exportsEveryGameWithTheMovesOfItsFinalBoard() throws Exception {
+        List<TicTacToe> games = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            TicTacToe game = new TicTacToe("game-" + i, "alice", "bob", GameVariant.GOMOKU_15);
+            if (i == 0) {
+                // A player left after the first move, the board was reset and the game went on
+                gameMoveRepository.save(new GameMove(game, "alice", 0));
+                game.resetBoard();
+            }
+            play(game, "alice", 112);
+            play(game, "bob", 113);
+            play(game, "alice", i);
+            game.setWinner(i % 2 == 0 ? "alice" : "TIE");
+            game.setLastMoveTime(new Date());
+            games.add(game);
+        }
+        ticTacToeRepository.saveAllAndFlush(games);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GameExportService service = new GameExportService(dataSource, objectMapper, 3);
+        assertEquals(7, service.export(out));
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(7, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            ExportedGame exported = objectMapper.readValue(lines[i], ExportedGame.class);
+            assertEquals("game-" + i, exported.getGameId());
+            assertEquals(GameVariant.GOMOKU_15, exported.getVariant());
+            assertEquals(i % 2 == 0 ? "alice" : "TIE", exported.getWinner());
+            assertEquals(3, exported.getStones());
+            assertArrayEquals(new int[]{112, 113, i}, exported.getMoves());
+        }
+    }
+
+    private void play(TicTacToe game, String player, int cell) {
+        game.makeMove(player, cell);
+        gameMoveRepository.save(new GameMove(game, player, cell));
+    }
+}
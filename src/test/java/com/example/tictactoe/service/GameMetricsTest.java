@@ -0,0 +1,78 @@
+package com.example.tictactoe.service;
+
+import com.example.tictactoe.manager.TicTacToeManager;
+import com.example.tictactoe.model.GameMove;
+import com.example.tictactoe.model.TicTacToe;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GameMetricsTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final TicTacToeManager manager = new TicTacToeManager();
+    private final WriteBehindQueue<TicTacToe> archiveQueue = new WriteBehindQueue<>("game-archive", 10, 10, 10, 1, 10, games -> {});
+    private final WriteBehindQueue<GameMove> journalQueue = new WriteBehindQueue<>("move-journal", 10, 10, 10, 1, 10, moves -> {});
+    private GameMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        GameArchiveService archive = mock(GameArchiveService.class);
+        MoveJournalService journal = mock(MoveJournalService.class);
+        when(archive.getQueue()).thenReturn(archiveQueue);
+        when(journal.getQueue()).thenReturn(journalQueue);
+        metrics = new GameMetrics(registry, manager, mock(GameTimerService.class), archive, journal,
+                new MoveRateLimiter(5, 10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        archiveQueue.close();
+        journalQueue.close();
+    }
+
+    @Test
+    void gaugesFollowTheManager() {
+        manager.joinGame("alice");
+        manager.joinGame("bob");
+        manager.joinGame("carol");
+
+        assertEquals(2, registry.get("tictactoe.games.active").gauge().value());
+        assertEquals(1, registry.get("tictactoe.games.waiting").gauge().value());
+    }
+
+    @Test
+    void finishedGamesAreCountedByOutcome() {
+        TicTacToe won = new TicTacToe("alice", "bob");
+        won.setWinner("X");
+        TicTacToe tied = new TicTacToe("alice", "bob");
+        tied.setWinner("TIE");
+        TicTacToe timedOut = new TicTacToe("alice", "bob");
+        timedOut.endByTimeLimit();
+
+        metrics.recordGameOver(won);
+        metrics.recordGameOver(tied);
+        metrics.recordGameOver(timedOut);
+        metrics.recordForfeit();
+
+        for (String outcome : new String[]{"win", "tie", "time_limit", "forfeit"}) {
+            assertEquals(1, registry.get("tictactoe.games.finished").tag("outcome", outcome).counter().count(), outcome);
+        }
+    }
+
+    @Test
+    void movesAreTimedByResult() {
+        metrics.recordMove(TimeUnit.MILLISECONDS.toNanos(2), true);
+        metrics.recordMove(TimeUnit.MILLISECONDS.toNanos(1), false);
+        metrics.recordMove(TimeUnit.MILLISECONDS.toNanos(1), false);
+
+        assertEquals(1, registry.get("tictactoe.move.latency").tag("result", "accepted").timer().count());
+        assertEquals(2, registry.get("tictactoe.move.latency").tag("result", "rejected").timer().count());
+    }
+}
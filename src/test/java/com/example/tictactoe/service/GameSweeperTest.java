@@ -0,0 +1,72 @@
+package com.example.tictactoe.service;
+
+import com.example.tictactoe.manager.TicTacToeManager;
+import com.example.tictactoe.model.TicTacToe;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameSweeperTest {
+    private final TicTacToeManager manager = new TicTacToeManager(3);
+    private final GameSweeper sweeper = new GameSweeper(manager, 10_000, 60_000, 30_000);
+    private final List<TicTacToe> expired = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        sweeper.stop();
+    }
+
+    @Test
+    void expiresWaitingGamesNobodyJoined() {
+        TicTacToe waiting = manager.joinGame("alice");
+        long now = System.currentTimeMillis();
+        assertFalse(sweeper.isExpired(waiting, now + 59_000));
+        assertTrue(sweeper.isExpired(waiting, now + 61_000));
+
+        waiting.setLastActivityTime(now - 61_000);
+        assertEquals(1, sweeper.sweep(expired::add));
+        assertEquals(List.of(waiting), expired);
+    }
+
+    @Test
+    void expiresGamesWithoutMovesOrPastTheirTimeLimit() {
+        manager.joinGame("alice");
+        TicTacToe game = manager.joinGame("bob");
+        long now = System.currentTimeMillis();
+        assertFalse(sweeper.isExpired(game, now + 29_000));
+        assertTrue(sweeper.isExpired(game, now + 31_000));
+
+        game.touch();
+        game.setTotalGameStartTime(now - TicTacToe.GAME_TIME_LIMIT_MS - 1);
+        assertTrue(sweeper.isExpired(game, System.currentTimeMillis()));
+    }
+
+    @Test
+    void joiningKeepsAGameAlive() {
+        TicTacToe game = manager.joinGame("alice");
+        game.setLastActivityTime(System.currentTimeMillis() - 50_000);
+        manager.joinGame("bob");
+
+        assertEquals(0, sweeper.sweep(expired::add));
+    }
+
+    @Test
+    void noNewGamesAreOpenedBeyondTheLimit() {
+        manager.joinGame("alice");
+        manager.joinGame("bob");
+        manager.joinGame("carol");
+        manager.joinGame("dave");
+        manager.joinGame("erin");
+        manager.joinGame("frank");
+
+        assertNull(manager.joinGame("grace"));
+        assertEquals(3, manager.getActiveGameCount());
+    }
+}
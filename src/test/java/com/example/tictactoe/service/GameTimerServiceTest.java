@@ -0,0 +1,67 @@
+package com.example.tictactoe.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameTimerServiceTest {
+    private final GameTimerService timers = new GameTimerService();
+
+    @AfterEach
+    void tearDown() {
+        timers.shutdown();
+    }
+
+    @Test
+    void replacesThePendingMoveTimeout() throws InterruptedException {
+        AtomicInteger first = new AtomicInteger();
+        CountDownLatch second = new CountDownLatch(1);
+        timers.scheduleMoveTimeout("game", 100, first::incrementAndGet);
+        timers.scheduleMoveTimeout("game", 10, second::countDown);
+
+        assertTrue(second.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        assertEquals(0, first.get());
+    }
+
+    @Test
+    void schedulesOneGameTimeoutPerGame() {
+        assertTrue(timers.scheduleGameTimeout("game", 60_000, () -> { }));
+        assertFalse(timers.scheduleGameTimeout("game", 60_000, () -> { }));
+        assertTrue(timers.scheduleGameTimeout("other", 60_000, () -> { }));
+        assertEquals(2, timers.getPendingCount());
+    }
+
+    @Test
+    void cancelDropsBothTimeouts() throws InterruptedException {
+        AtomicInteger fired = new AtomicInteger();
+        timers.scheduleMoveTimeout("game", 50, fired::incrementAndGet);
+        timers.scheduleGameTimeout("game", 50, fired::incrementAndGet);
+
+        timers.cancel("game");
+
+        assertFalse(timers.hasTimeout("game"));
+        assertEquals(0, timers.getPendingCount());
+        Thread.sleep(150);
+        assertEquals(0, fired.get());
+        assertTrue(timers.scheduleGameTimeout("game", 60_000, () -> { }));
+    }
+
+    @Test
+    void forgetsTimeoutsOnceTheyFire() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(2);
+        timers.scheduleMoveTimeout("game", 0, fired::countDown);
+        timers.scheduleGameTimeout("game", 0, fired::countDown);
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertFalse(timers.hasTimeout("game"));
+        assertTrue(timers.scheduleGameTimeout("game", 60_000, () -> { }));
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.tictactoe.service;
+
+import com.example.tictactoe.bot.BotPlayer;
+import com.example.tictactoe.model.PlayerStats;
+import com.example.tictactoe.model.TicTacToe;
+import com.example.tictactoe.repository.PlayerStatsRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LeaderboardServiceTest {
+    private final PlayerStatsRepository repository = mock(PlayerStatsRepository.class);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void resultsUpdateWinsLossesTiesAndStreaks() {
+        PlayerStats alice = new PlayerStats("alice");
+        alice.recordWin(null);
+        when(repository.findByPlayerInOrderByPlayer(any())).thenReturn(List.of(alice));
+        LeaderboardService service = new LeaderboardService(repository, 60_000);
+
+        service.recordResults(List.of(
+                finished("alice", "bob", "alice"),
+                finished("bob", "alice", "alice"),
+                finished("alice", "carol", "TIE"),
+                finished("carol", "bob", "carol")));
+
+        ArgumentCaptor<Collection<PlayerStats>> saved = ArgumentCaptor.forClass(Collection.class);
+        verify(repository).saveAll(saved.capture());
+        Map<String, PlayerStats> stats = saved.getValue().stream()
+                .collect(Collectors.toMap(PlayerStats::getPlayer, Function.identity()));
+
+        assertEquals(3, stats.get("alice").getWins());
+        assertEquals(1, stats.get("alice").getTies());
+        assertEquals(0, stats.get("alice").getCurrentStreak());
+        assertEquals(3, stats.get("alice").getBestStreak());
+        assertEquals(3, stats.get("bob").getLosses());
+        assertEquals(1, stats.get("carol").getWins());
+        assertEquals(1, stats.get("carol").getCurrentStreak());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void resultsUpdateEloRatings() {
+        PlayerStats alice = new PlayerStats("alice");
+        alice.setRating(1700);
+        when(repository.findByPlayerInOrderByPlayer(any())).thenReturn(List.of(alice));
+        LeaderboardService service = new LeaderboardService(repository, 60_000);
+
+        service.recordResults(List.of(
+                finished("bob", "carol", "bob"),
+                finished("alice", "bob", "bob"),
+                finished("carol", "dave", "TIE")));
+
+        ArgumentCaptor<Collection<PlayerStats>> saved = ArgumentCaptor.forClass(Collection.class);
+        verify(repository).saveAll(saved.capture());
+        Map<String, PlayerStats> stats = saved.getValue().stream()
+                .collect(Collectors.toMap(PlayerStats::getPlayer, Function.identity()));
+
+        // bob beats an equal player for half of the K factor, then an upset against alice is worth more
+        assertEquals(1516 + 24, stats.get("bob").getRating());
+        assertEquals(1700 - 24, stats.get("alice").getRating());
+        assertEquals(1484 + 1, stats.get("carol").getRating());
+        assertEquals(1500 - 1, stats.get("dave").getRating());
+
+        // Joining players get the saved ratings from memory, and players without a saved game the initial rating
+        assertEquals(1516 + 24, service.getRating("bob"));
+        assertEquals(1700 - 24, service.getRating("alice"));
+        assertEquals(PlayerStats.INITIAL_RATING, service.getRating("erin"));
+        verify(repository, never()).findById(any());
+    }
+
+    @Test
+    void missingPlayersAreCreatedBeforeAnyRowIsLocked() {
+        PlayerStats bob = new PlayerStats("bob");
+        when(repository.findExistingPlayers(any())).thenReturn(List.of("bob"));
+        when(repository.findByPlayerInOrderByPlayer(any())).thenReturn(List.of(bob, new PlayerStats("carol"),
+                new PlayerStats("dave")));
+        LeaderboardService service = new LeaderboardService(repository, 60_000);
+
+        service.recordResults(List.of(finished("dave", "bob", "bob"), finished("carol", "bob", "TIE")));
+
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).insertIfAbsent("carol");
+        inOrder.verify(repository).insertIfAbsent("dave");
+        inOrder.verify(repository).findByPlayerInOrderByPlayer(Set.of("bob", "carol", "dave"));
+        verify(repository, never()).insertIfAbsent("bob");
+        verify(repository, times(1)).findByPlayerInOrderByPlayer(any());
+    }
+
+    @Test
+    void gamesAgainstTheBotAreNotCounted() {
+        LeaderboardService service = new LeaderboardService(repository, 60_000);
+
+        service.recordResults(List.of(finished("alice", BotPlayer.NAME, "alice"),
+                finished(BotPlayer.NAME, "bob", BotPlayer.NAME)));
+
+        verify(repository, never()).insertIfAbsent(any());
+        verify(repository, never()).findByPlayerInOrderByPlayer(any());
+        verify(repository, never()).saveAll(any());
+        assertEquals(PlayerStats.INITIAL_RATING, service.getRating("alice"));
+    }
+
+    @Test
+    void restartedServiceServesTheStoredRatings() {
+        when(repository.findByOrderByLastGameTimeDesc(any())).thenReturn(List.of(rating("alice", 1700)));
+        LeaderboardService service = new LeaderboardService(repository, 60_000);
+
+        service.loadRatings();
+
+        assertEquals(1700, service.getRating("alice"));
+        verify(repository, never()).findRatingsByPlayerIn(any());
+    }
+
+    @Test
+    void missingRatingsAreLoadedInTheBackground() throws InterruptedException {
+        when(repository.findRatingsByPlayerIn(any())).thenReturn(List.of(rating("bob", 1650)));
+        LeaderboardService service = new LeaderboardService(repository, 60_000);
+
+        // The first join does not wait for the database, later ones get the stored rating
+        assertEquals(PlayerStats.INITIAL_RATING, service.getRating("bob"));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (service.getRating("bob") != 1650 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1650, service.getRating("bob"));
+        service.stop();
+    }
+
+    @Test
+    void leaderboardIsCachedUntilResultsChange() {
+        when(repository.findTop10ByOrderByWinsDescTiesDescLossesAsc()).thenReturn(new ArrayList<>());
+        LeaderboardService service = new LeaderboardService(repository, 60_000);
+
+        service.getLeaderboard();
+        service.getLeaderboard();
+        verify(repository, times(1)).findTop10ByOrderByWinsDescTiesDescLossesAsc();
+
+        service.recordResults(List.of(finished("alice", "bob", "bob")));
+        service.getLeaderboard();
+        verify(repository, times(2)).findTop10ByOrderByWinsDescTiesDescLossesAsc();
+    }
+
+    @Test
+    void leaderboardIsInvalidatedWhenTheTransactionCommits() {
+        when(repository.findTop10ByOrderByWinsDescTiesDescLossesAsc()).thenReturn(new ArrayList<>());
+        LeaderboardService service = new LeaderboardService(repository, 60_000);
+        service.getLeaderboard();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.recordResults(List.of(finished("alice", "bob", "bob")));
+            service.getLeaderboard();
+            verify(repository, times(1)).findTop10ByOrderByWinsDescTiesDescLossesAsc();
+            assertEquals(PlayerStats.INITIAL_RATING, service.getRating("bob"));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        service.getLeaderboard();
+        verify(repository, times(2)).findTop10ByOrderByWinsDescTiesDescLossesAsc();
+        assertEquals(PlayerStats.INITIAL_RATING + 16, service.getRating("bob"));
+    }
+
+    private static PlayerStatsRepository.Rating rating(String player, int rating) {
+        return new PlayerStatsRepository.Rating() {
+            @Override
+            public String getPlayer() {
+                return player;
+            }
+
+            @Override
+            public int getRating() {
+                return rating;
+            }
+        };
+    }
+
+    private static TicTacToe finished(String player1, String player2, String winner) {
+        TicTacToe game = new TicTacToe(player1, player2);
+        game.setWinner(winner);
+        return game;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.tictactoe.service;
+
+import com.example.tictactoe.enumeration.GameState;
+import com.example.tictactoe.enumeration.GameVariant;
+import com.example.tictactoe.model.TicTacToe;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LiveGameJournalTest {
+    @TempDir
+    Path directory;
+
+    private LiveGameJournal open() {
+        return new LiveGameJournal(true, directory.toString(), 1);
+    }
+
+    private static TicTacToe startGame(String player1, String player2, GameVariant variant) {
+        TicTacToe game = new TicTacToe(player1 + "-" + player2, player1, player2, variant);
+        game.setGameState(GameState.PLAYER1_TURN);
+        return game;
+    }
+
+    @Test
+    void restoresTheLatestStateOfLiveGames() {
+        LiveGameJournal journal = open();
+        TicTacToe game = startGame("alice", "bob", GameVariant.GOMOKU_15);
+        game.setPlayer1Rating(1720);
+        game.setPlayer2Rating(1480);
+        journal.record(game);
+        game.makeMove("alice", 7);
+        game.makeMove("bob", 100);
+        journal.record(game);
+        TicTacToe finished = startGame("carol", "dave", GameVariant.GOMOKU);
+        journal.record(finished);
+        journal.remove(finished.getGameId());
+        journal.close();
+
+        LiveGameJournal reopened = open();
+        List<TicTacToe> recovered = reopened.takeRecoveredGames();
+        reopened.close();
+        assertEquals(1, recovered.size());
+        TicTacToe restored = recovered.get(0);
+        assertEquals(game.getGameId(), restored.getGameId());
+        assertEquals(GameVariant.GOMOKU_15, restored.getVariant());
+        assertEquals(game.getBoard(), restored.getBoard());
+        assertEquals("alice", restored.getTurn());
+        assertEquals(GameState.PLAYER1_TURN, restored.getGameState());
+        assertEquals(game.getSequence(), restored.getSequence());
+        assertEquals(1720, restored.getPlayer1Rating());
+        assertEquals(1480, restored.getPlayer2Rating());
+        assertEquals(game.getGameTimeLeftMs(), restored.getGameTimeLeftMs(), 1000);
+        assertEquals(game.getStartTime(), restored.getStartTime());
+    }
+
+    @Test
+    void downtimeIsNotChargedToTheGameClock() {
+        TicTacToe game = startGame("alice", "bob", GameVariant.GOMOKU);
+        long now = System.currentTimeMillis();
+        game.setTotalGameStartTime(now - 60_000);
+        byte[] record = LiveGameJournal.encode(game, now);
+
+        long restart = now + TimeUnit.HOURS.toMillis(1);
+        TicTacToe restored = LiveGameJournal.decode(record, restart);
+        assertEquals(restart - 60_000, restored.getTotalGameStartTime());
+    }
+
+    @Test
+    void keepsOnlyLiveGamesWhenRollingToANewSegment() throws IOException {
+        LiveGameJournal journal = open();
+        TicTacToe game = startGame("alice", "bob", GameVariant.GOMOKU);
+        for (int i = 0; i < 20_000; i++) {
+            journal.record(game);
+        }
+        TicTacToe waiting = new TicTacToe("waiting", "erin", null, GameVariant.CLASSIC);
+        journal.record(waiting);
+        journal.close();
+
+        // The last checkpoint and the segment after it
+        List<Path> segments = segments();
+        assertEquals(2, segments.size());
+        for (Path segment : segments) {
+            assertTrue(Files.size(segment) <= 1024 * 1024);
+        }
+        LiveGameJournal reopened = open();
+        assertEquals(2, reopened.getLiveGameCount());
+        assertEquals(2, reopened.takeRecoveredGames().size());
+        assertEquals(0, reopened.takeRecoveredGames().size());
+        reopened.close();
+    }
+
+    @Test
+    void ignoresARecordCutShortByACrash() throws IOException {
+        LiveGameJournal journal = open();
+        TicTacToe first = startGame("alice", "bob", GameVariant.GOMOKU);
+        TicTacToe second = startGame("carol", "dave", GameVariant.GOMOKU);
+        journal.record(first);
+        journal.record(second);
+        journal.close();
+
+        Path segment = segments().get(0);
+        byte[] data = Files.readAllBytes(segment);
+        int end = data.length - 1;
+        while (data[end] == 0) {
+            end--;
+        }
+        data[end] ^= 1;
+        Files.write(segment, data);
+
+        LiveGameJournal reopened = open();
+        List<TicTacToe> recovered = reopened.takeRecoveredGames();
+        reopened.close();
+        assertEquals(1, recovered.size());
+        assertEquals(first.getGameId(), recovered.get(0).getGameId());
+    }
+
+    @Test
+    void refusesADirectoryInUse() {
+        LiveGameJournal journal = open();
+        assertThrows(IllegalStateException.class, this::open);
+        journal.close();
+        open().close();
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".journal")).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.tictactoe.service;
+
+import com.example.tictactoe.model.GameMove;
+import com.example.tictactoe.model.TicTacToe;
+import com.example.tictactoe.repository.GameMoveRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MoveJournalServiceTest {
+    private final GameMoveRepository repository = mock(GameMoveRepository.class);
+    private final List<GameMove> journal = new ArrayList<>();
+    private MoveJournalService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new MoveJournalService(repository, mock(JdbcTemplate.class), mock(PlatformTransactionManager.class),
+                10, 10, 10, 1, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.getQueue().close();
+    }
+
+    @Test
+    void replayRebuildsBoardTurnAndWinner() {
+        TicTacToe game = new TicTacToe("alice", "bob");
+        play(game, "alice", 0);
+        play(game, "bob", 20);
+        pass(game, "alice");
+        play(game, "bob", 21);
+        for (int cell = 1; cell < 5; cell++) {
+            play(game, "alice", cell);
+            if (!game.isGameOver()) {
+                play(game, "bob", 40 + cell);
+            }
+        }
+        when(repository.findByGameIdOrderBySequenceAsc(game.getGameId())).thenReturn(journal);
+
+        TicTacToe replayed = service.replay(game.getGameId(), null);
+        assertEquals(game.getBoard(), replayed.getBoard());
+        assertEquals(game.getWinner(), replayed.getWinner());
+        assertEquals("X", replayed.getWinner());
+        assertEquals(game.getSequence(), replayed.getSequence());
+        assertEquals("alice", replayed.getPlayer1());
+        assertEquals("bob", replayed.getPlayer2());
+
+        TicTacToe partial = service.replay(game.getGameId(), 3L);
+        assertEquals(2, partial.getBoard().getStoneCount());
+        assertEquals("bob", partial.getTurn());
+        assertNull(partial.getWinner());
+    }
+
+    @Test
+    void replaySkipsBoardsThatWereReset() {
+        TicTacToe game = new TicTacToe("alice", "bob");
+        play(game, "alice", 0);
+        play(game, "bob", 1);
+        game.setPlayer1("bob");
+        game.setPlayer2("carol");
+        game.setTurn("bob");
+        game.resetBoard();
+        play(game, "bob", 7);
+        when(repository.findByGameIdOrderBySequenceAsc(game.getGameId())).thenReturn(journal);
+
+        TicTacToe replayed = service.replay(game.getGameId(), null);
+        assertEquals(1, replayed.getBoard().getStoneCount());
+        assertEquals('X', replayed.getBoard().get(7));
+        assertEquals("bob", replayed.getPlayer1());
+        assertEquals("carol", replayed.getTurn());
+    }
+
+    @Test
+    void replayOfUnknownGameIsNull() {
+        assertNull(service.replay("missing", null));
+    }
+
+    private void play(TicTacToe game, String player, int cell) {
+        game.makeMove(player, cell);
+        journal.add(new GameMove(game, player, cell));
+    }
+
+    private void pass(TicTacToe game, String player) {
+        game.passTurn();
+        journal.add(new GameMove(game, player, GameMove.PASS));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.tictactoe.service;
+
+import com.example.tictactoe.cluster.ClusterService;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoveRateLimiterTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    private final MoveRateLimiter limiter = new MoveRateLimiter(5, 10);
+
+    private static Message<byte[]> message(SimpMessageType type, String sessionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination(destination);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    @Test
+    void allowsABurstAndThenTheRefillRate() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire("session", 0));
+        }
+        assertFalse(limiter.tryAcquire("session", 0));
+        assertTrue(limiter.tryAcquire("other", 0));
+
+        assertTrue(limiter.tryAcquire("session", SECOND / 5));
+        assertFalse(limiter.tryAcquire("session", SECOND / 5));
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire("session", 100 * SECOND));
+        }
+        assertFalse(limiter.tryAcquire("session", 100 * SECOND));
+        assertEquals(3, limiter.getLimitedCount());
+    }
+
+    @Test
+    void onlyLimitsMovesAndSyncsOfClientSessions() {
+        for (int i = 0; i < 10; i++) {
+            assertNotNull(limiter.preSend(message(SimpMessageType.MESSAGE, "session", "/app/game.move"), null));
+        }
+        assertNull(limiter.preSend(message(SimpMessageType.MESSAGE, "session", "/app/game.move"), null));
+        assertNotNull(limiter.preSend(message(SimpMessageType.MESSAGE, "session", "/app/game.join"), null));
+
+        // Syncs have a bucket of their own
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(limiter.preSend(message(SimpMessageType.MESSAGE, "session", "/app/game.sync"), null));
+        }
+        assertNull(limiter.preSend(message(SimpMessageType.MESSAGE, "session", "/app/game.sync"), null));
+
+        Message<byte[]> forwarded = message(SimpMessageType.MESSAGE, "session", "/app/game.move");
+        SimpMessageHeaderAccessor.getAccessor(forwarded, SimpMessageHeaderAccessor.class)
+                .setHeader(ClusterService.FORWARDED_FROM, "node-2");
+        assertNotNull(limiter.preSend(forwarded, null));
+    }
+
+    @Test
+    void forgetsSessionsWhenTheyDisconnect() {
+        limiter.preSend(message(SimpMessageType.MESSAGE, "session", "/app/game.move"), null);
+        assertEquals(1, limiter.getSessionCount());
+
+        limiter.preSend(message(SimpMessageType.DISCONNECT, "session", null), null);
+        assertEquals(0, limiter.getSessionCount());
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.tictactoe.service;
+
+import com.example.tictactoe.cluster.GameEventPublisher;
+import com.example.tictactoe.manager.TicTacToeManager;
+import com.example.tictactoe.model.TicTacToe;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SpectatorServiceTest {
+    private final TicTacToeManager manager = new TicTacToeManager();
+    private final GameEventPublisher publisher = mock(GameEventPublisher.class);
+    private final byte[] snapshot = new byte[0];
+
+    SpectatorServiceTest() {
+        when(publisher.encodeSnapshot(any(), anyString())).thenReturn(snapshot);
+    }
+
+    private TicTacToe startGame() {
+        manager.joinGame("alice");
+        return manager.joinGame("bob");
+    }
+
+    @Test
+    void coalescesChangesIntoOneMessagePerFlush() {
+        SpectatorService service = new SpectatorService(manager, publisher, 250, 60_000);
+        TicTacToe game = startGame();
+        String gameId = game.getGameId();
+
+        service.watch(gameId);
+        game.makeMove("alice", 0);
+        service.changed(gameId);
+        game.makeMove("bob", 1);
+        service.changed(gameId);
+        service.flush();
+        service.flush();
+
+        verify(publisher, times(1)).encodeSnapshot(game, "game.spectate");
+        verify(publisher, times(1)).publishEncoded(SpectatorService.topic(gameId), snapshot);
+    }
+
+    @Test
+    void ignoresGamesWithoutSpectators() {
+        SpectatorService service = new SpectatorService(manager, publisher, 250, 60_000);
+        TicTacToe game = startGame();
+
+        service.changed(game.getGameId());
+        service.flush();
+
+        verify(publisher, never()).publishEncoded(anyString(), any());
+        assertFalse(service.isWatched(game.getGameId()));
+    }
+
+    @Test
+    void dropsExpiredLeasesAndEndedGames() throws InterruptedException {
+        SpectatorService service = new SpectatorService(manager, publisher, 250, 1);
+        TicTacToe game = startGame();
+        service.watch(game.getGameId());
+        Thread.sleep(5);
+        service.flush();
+        assertEquals(0, service.getWatchedGameCount());
+
+        service = new SpectatorService(manager, publisher, 250, 60_000);
+        service.watch(game.getGameId());
+        manager.removeGame(game.getGameId());
+        service.flush();
+        assertEquals(0, service.getWatchedGameCount());
+        verify(publisher, never()).publishEncoded(anyString(), any());
+    }
+
+    @Test
+    void sendsTheFinalStateRightAway() {
+        SpectatorService service = new SpectatorService(manager, publisher, 250, 60_000);
+        TicTacToe game = startGame();
+        service.watch(game.getGameId());
+        assertTrue(service.isWatched(game.getGameId()));
+
+        service.finished(game);
+        service.flush();
+
+        verify(publisher).publishSnapshot(eq(SpectatorService.topic(game.getGameId())), eq(game), eq("game.gameOver"));
+        verify(publisher, never()).encodeSnapshot(any(), eq("game.spectate"));
+        assertFalse(service.isWatched(game.getGameId()));
+    }
+}
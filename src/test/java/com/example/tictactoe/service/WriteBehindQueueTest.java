@@ -0,0 +1,111 @@
+package com.example.tictactoe.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WriteBehindQueueTest {
+
+    @Test
+    void itemsAreWrittenInBatchesAndFlushedOnClose() {
+        List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch blocked = new CountDownLatch(1);
+        WriteBehindQueue<Integer> queue = new WriteBehindQueue<>("test", 1000, 10, 10, 1, 10, batch -> {
+            await(blocked);
+            batches.add(List.copyOf(batch));
+        });
+        for (int i = 0; i < 95; i++) {
+            queue.add(i);
+        }
+        blocked.countDown();
+        queue.close();
+
+        assertEquals(95, batches.stream().mapToInt(List::size).sum());
+        assertTrue(batches.stream().allMatch(batch -> batch.size() <= 10));
+        assertEquals(95, queue.getWrittenCount());
+        assertEquals(0, queue.getDepth());
+    }
+
+    @Test
+    void failedBatchesAreRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+        List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+        WriteBehindQueue<Integer> queue = new WriteBehindQueue<>("test", 10, 10, 10, 3, 10, batch -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("database unavailable");
+            }
+            written.addAll(batch);
+        });
+        queue.add(1);
+        queue.close();
+
+        assertEquals(List.of(1), written);
+        assertEquals(0, queue.getFailedCount());
+    }
+
+    @Test
+    void fullQueueWritesOnCallerThread() {
+        CountDownLatch blocked = new CountDownLatch(1);
+        List<String> writers = Collections.synchronizedList(new ArrayList<>());
+        WriteBehindQueue<Integer> queue = new WriteBehindQueue<>("test", 1, 1, 10, 1, 10, batch -> {
+            if (Thread.currentThread().getName().equals("test-flusher")) {
+                await(blocked);
+            }
+            writers.add(Thread.currentThread().getName());
+        });
+        for (int i = 0; i < 5; i++) {
+            queue.add(i);
+        }
+        assertTrue(queue.getCallerWriteCount() >= 3);
+        blocked.countDown();
+        queue.close();
+
+        assertEquals(5, writers.size());
+        assertEquals(5, queue.getWrittenCount());
+    }
+
+    @Test
+    void itemsAddedWhileClosingAreNotLost() throws InterruptedException {
+        AtomicInteger written = new AtomicInteger();
+        WriteBehindQueue<Integer> queue = new WriteBehindQueue<>("test", 100, 10, 1, 1, 10,
+                batch -> written.addAndGet(batch.size()));
+        int producers = 4;
+        int perProducer = 5_000;
+        CountDownLatch started = new CountDownLatch(producers);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            Thread thread = new Thread(() -> {
+                started.countDown();
+                for (int i = 0; i < perProducer; i++) {
+                    queue.add(i);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        started.await();
+        queue.close();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(producers * perProducer, written.get());
+        assertEquals(0, queue.getDepth());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}